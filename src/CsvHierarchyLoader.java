@@ -0,0 +1,111 @@
+import org.ejml.simple.SimpleMatrix;
+import storage.CsvMatrixParser;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+/**
+ * Loads matrices of pair comparisons of hierarchy from directory of CSV files in parallel.
+ * Crisp matrices are read from files full_pC{layer - 1}{element}g.csv,
+ * fuzzy matrices - from files full_{L|M|U}full_pC{layer - 1}{element}g.csv.
+ * Hierarchy is changed only if all files are present and parsed.
+ */
+public class CsvHierarchyLoader {
+    private static final String[] FUZZY_PREFIXES = {"L", "M", "U"};
+
+    /**
+     * Loads crisp matrices of all nodes
+     * @throws IOException if file is absent or malformed, message contains path of file
+     */
+    public static void loadRealMatrices(Path directory, Hierarchy hierarchy) throws IOException {
+        load(directory, hierarchy, false);
+    }
+
+    /**
+     * Loads fuzzy matrices {L, M, U} of all nodes
+     * @throws IOException if file is absent or malformed, message contains path of file
+     */
+    public static void loadFuzzyMatrices(Path directory, Hierarchy hierarchy) throws IOException {
+        load(directory, hierarchy, true);
+    }
+
+    private static void load(Path directory, Hierarchy hierarchy, boolean fuzzy) throws IOException {
+        Set<String> fileNames = new HashSet<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*.csv")) {
+            for (Path file : files) {
+                fileNames.add(file.getFileName().toString());
+            }
+        }
+
+        // Files in order of nodes: layer, element and then L, M, U for fuzzy matrices
+        final int numBounds = fuzzy ? 3 : 1;
+        ArrayList<Path> files = new ArrayList<>();
+        ArrayList<Integer> sizes = new ArrayList<>();
+        for (int i = 1; i < hierarchy.getNumLayers(); i++) {
+            for (int j = 0; j < hierarchy.getNumElementsPerLayer(i - 1); j++) {
+                for (int k = 0; k < numBounds; k++) {
+                    String prefix = fuzzy ? "full_" + FUZZY_PREFIXES[k] : "";
+                    String fileName = prefix + "full_pC" + Integer.toString(i - 1) + Integer.toString(j) + "g.csv";
+                    if (!fileNames.contains(fileName)) {
+                        throw new IOException("Missing file " + directory.resolve(fileName));
+                    }
+                    files.add(directory.resolve(fileName));
+                    sizes.add(hierarchy.getNumElementsPerLayer(i));
+                }
+            }
+        }
+
+        SimpleMatrix[] matrices = new SimpleMatrix[files.size()];
+        IOException[] errors = new IOException[files.size()];
+        IntStream.range(0, files.size()).parallel().forEach(f -> {
+            try {
+                matrices[f] = CsvMatrixParser.parse(files.get(f));
+            } catch (IOException e) {
+                errors[f] = e;
+            }
+        });
+        IOException error = null;
+        for (IOException e : errors) {
+            if (e == null) {
+                continue;
+            }
+            if (error == null) {
+                error = e;
+            } else {
+                error.addSuppressed(e);
+            }
+        }
+        if (error != null) {
+            throw error;
+        }
+
+        // Check dimensions before changing hierarchy
+        for (int f = 0; f < files.size(); f++) {
+            final int n = sizes.get(f);
+            if (matrices[f].numRows() != n || matrices[f].numCols() != n) {
+                throw new IOException(files.get(f) + ": matrix has incorrect dimensions " +
+                        matrices[f].numRows() + " x " + matrices[f].numCols() + ", expected " + n + " x " + n);
+            }
+        }
+
+        int f = 0;
+        for (int i = 1; i < hierarchy.getNumLayers(); i++) {
+            for (int j = 0; j < hierarchy.getNumElementsPerLayer(i - 1); j++) {
+                for (int k = 0; k < numBounds; k++) {
+                    if (fuzzy) {
+                        hierarchy.setFuzzyPairComparisonsMatrix(i, j, k, matrices[f]);
+                    } else {
+                        hierarchy.setPairComparisonsMatrix(i, j, matrices[f]);
+                    }
+                    f++;
+                }
+            }
+        }
+    }
+}
@@ -1,14 +1,42 @@
 import fuzzyGlobal.FuzzyGlobalWeightsAlg;
+import fuzzyGlobal.IntervalVector;
 import fuzzyLocal.FuzzyLocalWeightsAlg;
+import fuzzyLocal.FuzzyReciprocalMatrix;
+import fuzzyLocal.TriangularFuzzyVector;
+import globalMethods.DistributedSynthesis;
 import globalMethods.GlobalWeightsAlg;
+import localMethods.EM;
 import localMethods.LocalWeightsAlg;
+import localMethods.ReciprocalMatrix;
 import org.ejml.simple.SimpleMatrix;
+import storage.AlternativeLayer;
+import storage.JudgmentStore;
 
 import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 public class Hierarchy {
     private ArrayList<ArrayList<Node>> hStructure;
 
+    /**
+     * Last layer of alternatives stored outside of nodes, or null if alternatives are nodes of hStructure
+     */
+    private AlternativeLayer alternatives;
+
+    /**
+     * Algorithms, which computed current local and global weights. Weights are recomputed incrementally
+     * only by the same algorithm instances.
+     */
+    private LocalWeightsAlg lastLocalWeightsAlg;
+    private GlobalWeightsAlg lastGlobalWeightsAlg;
+
+    /**
+     * Index of the first layer, which global weights are outdated
+     */
+    private int firstOutdatedGlobalLayer = 0;
+
     /**
      * Build hierarchy with Goal on 1-st level and with number of elements,
      * corresponding to the 'elements' array
@@ -31,14 +59,46 @@ public class Hierarchy {
         }
     }
 
+    /**
+     * Build hierarchy, which last layer of alternatives is stored in off-heap or memory-mapped columns
+     * instead of nodes. Local weights of alternatives according to criteria are set in alternative layer.
+     * Such hierarchy can not be compiled into HierarchyPlan, so MonteCarloSimulation does not support it.
+     * @param elements specifies number of elements on (i+1)th layer of criteria, starting with 2nd layer
+     * @param alternatives layer of alternatives, which number of criteria equals size of the last layer of criteria
+     */
+    public Hierarchy(int[] elements, AlternativeLayer alternatives) {
+        this(elements);
+        if (elements.length == 0) {
+            throw new IllegalArgumentException("Hierarchy with alternative layer should have layer of criteria");
+        }
+        if (alternatives.getNumCriteria() != elements[elements.length - 1]) {
+            throw new IllegalArgumentException("Number of criteria of alternative layer differs from size of the last layer");
+        }
+        this.alternatives = alternatives;
+    }
+
+    /**
+     * @return layer of alternatives or null, if alternatives are stored in nodes
+     */
+    public AlternativeLayer getAlternativeLayer() {
+        return alternatives;
+    }
+
     public int getNumLayers() {
-        return hStructure.size();
+        return alternatives == null ? hStructure.size() : hStructure.size() + 1;
     }
 
     public int getNumElementsPerLayer(int layer) {
+        if (isAlternativeLayer(layer)) {
+            return alternatives.getNumAlternatives();
+        }
         return hStructure.get(layer).size();
     }
 
+    private boolean isAlternativeLayer(int layer) {
+        return alternatives != null && layer == hStructure.size();
+    }
+
     /**
      * Sets the matrix of pair comparisons
      * @param layer index of layer which matrix was built for. Goal has layer with index 0.
@@ -55,7 +115,23 @@ public class Hierarchy {
     }
 
     /**
-     * Returns pair comparisons matrix for given layer and element
+     * Sets packed reciprocal matrix of pair comparisons, it is stored without expanding to dense matrix
+     * @param layer index of layer which matrix was built for. Goal has layer with index 0.
+     * @param element index of element according to which comparisons was conducted
+     * @param pairComparisons packed matrix of pair comparisons
+     */
+    public void setPairComparisonsMatrix(int layer, int element, ReciprocalMatrix pairComparisons) {
+        checkElementLayer(layer, element);
+        if (pairComparisons.getSize() != hStructure.get(layer).size()) {
+            throw new IndexOutOfBoundsException("Matrix has incorrect dimensions");
+        }
+        hStructure.get(layer - 1).get(element).setPairComparisons(pairComparisons);
+    }
+
+    /**
+     * Returns pair comparisons matrix for given layer and element.
+     * Packed matrix is returned as new expanded copy, so its changes are lost. Changes of dense matrix made
+     * in place are not tracked by recomputeLocalWeights. Matrix should be set again after it is changed.
      * @param layer layer of compared elements
      * @param element element relatively to which lower layer elements are compared
      * @return Pair comparisons matrix
@@ -82,7 +158,23 @@ public class Hierarchy {
     }
 
     /**
-     * Returns fuzzy pair comparisons matrix for given layer and element
+     * Sets packed fuzzy reciprocal matrix of pair comparisons, it is stored without expanding to dense matrices
+     * @param layer index of layer which matrix was built for. Goal has layer with index 0.
+     * @param element index of element according to which comparisons was conducted
+     * @param pairComparisons packed fuzzy matrix of pair comparisons
+     */
+    public void setFuzzyPairComparisonsMatrix(int layer, int element, FuzzyReciprocalMatrix pairComparisons) {
+        checkElementLayer(layer, element);
+        if (pairComparisons.getSize() != hStructure.get(layer).size()) {
+            throw new IndexOutOfBoundsException("Matrix has incorrect dimensions");
+        }
+        hStructure.get(layer - 1).get(element).setFuzzyPairComparisons(pairComparisons);
+    }
+
+    /**
+     * Returns fuzzy pair comparisons matrix for given layer and element.
+     * Packed matrix is returned as new expanded copy, so its changes are lost. Matrix should be set again
+     * after it is changed.
      * @param layer layer of compared elements
      * @param element element relatively to which lower layer elements are compared
      * @param fuzzyIndex 0 - L, 1 - M, 2 - U
@@ -93,31 +185,185 @@ public class Hierarchy {
         return hStructure.get(layer - 1).get(element).getFuzzyPairComparisons(fuzzyIndex);
     }
 
+    /**
+     * Attaches binary store of judgments (see storage.CsvJudgmentConverter). Matrices present in store replace
+     * matrices of nodes and are read into node on its first access, so store should stay open until all local
+     * weights are computed.
+     */
+    public void setJudgmentStore(JudgmentStore judgments) {
+        if (judgments.getNumLayers() != hStructure.size()) {
+            throw new IllegalArgumentException("Store has incorrect number of layers");
+        }
+        for (int i = 0; i < hStructure.size(); i++) {
+            if (judgments.getNumElementsPerLayer(i) != hStructure.get(i).size()) {
+                throw new IllegalArgumentException("Store has incorrect number of elements on layer " + i);
+            }
+        }
+        for (int i = 0; i < hStructure.size() - 1; i++) {
+            for (int j = 0; j < hStructure.get(i).size(); j++) {
+                hStructure.get(i).get(j).setJudgments(judgments, i + 1, j);
+            }
+        }
+    }
+
     public void computeAllLocalWeights(LocalWeightsAlg localWeightsAlg) {
         for (int i = 0; i < hStructure.size() - 1; i++) {
             for (Node node : hStructure.get(i)) {
-                if (node.getPairComparisons() == null) {
+                computeLocalWeights(localWeightsAlg, node);
+            }
+        }
+        lastLocalWeightsAlg = localWeightsAlg;
+        firstOutdatedGlobalLayer = 0;
+    }
+
+    /**
+     * Computes local weights of all nodes concurrently. Results are the same as of sequential computation.
+     * @param localWeightsAlg algorithm, which instance is shared between threads
+     * @param executor executor for node computations, e.g. ForkJoinPool.commonPool()
+     */
+    public void computeAllLocalWeights(LocalWeightsAlg localWeightsAlg, Executor executor) {
+        ArrayList<Node> nodes = getCriteriaNodes();
+        for (Node node : nodes) {
+            if (!node.hasPairComparisons()) {
+                throw new NullPointerException("Null matrix of pairwise comparisons in structure");
+            }
+        }
+        ArrayList<CompletableFuture<Void>> tasks = new ArrayList<>(nodes.size());
+        for (Node node : nodes) {
+            tasks.add(CompletableFuture.runAsync(() -> computeLocalWeights(localWeightsAlg, node), executor));
+        }
+        joinAll(tasks);
+        lastLocalWeightsAlg = localWeightsAlg;
+        firstOutdatedGlobalLayer = 0;
+    }
+
+    /**
+     * Recomputes local weights only of nodes, which pair comparisons were set after the last computation.
+     * Results are the same as of computeAllLocalWeights. If local weights were computed by another algorithm
+     * instance, all nodes are recomputed.
+     * Note: changes made directly in matrix of pair comparisons (not by setPairComparisonsMatrix) are not tracked.
+     * @return number of recomputed nodes
+     */
+    public int recomputeLocalWeights(LocalWeightsAlg localWeightsAlg) {
+        if (localWeightsAlg != lastLocalWeightsAlg) {
+            computeAllLocalWeights(localWeightsAlg);
+            return getCriteriaNodes().size();
+        }
+        int numRecomputed = 0;
+        for (int i = 0; i < hStructure.size() - 1; i++) {
+            for (Node node : hStructure.get(i)) {
+                if (node.isDirty()) {
+                    computeLocalWeights(localWeightsAlg, node);
+                    firstOutdatedGlobalLayer = Math.min(firstOutdatedGlobalLayer, i + 1);
+                    numRecomputed++;
+                }
+            }
+        }
+        return numRecomputed;
+    }
+
+    private void computeLocalWeights(LocalWeightsAlg localWeightsAlg, Node node) {
+        if (!node.hasPairComparisons()) {
+            throw new NullPointerException("Null matrix of pairwise comparisons in structure");
+        }
+        ArrayList results = node.getReciprocalPairComparisons() != null ?
+                localWeightsAlg.computeLocal(node.getReciprocalPairComparisons()) :
+                localWeightsAlg.computeLocal(node.getPairComparisons());
+        node.setLocalWeights((SimpleMatrix) results.get(0));
+        node.setConsistencyIndex((double) results.get(1));
+        node.setDirty(false);
+    }
+
+    /**
+     * Computes local weights by Eigenvalue Method
+     * @param eigenvalueMethod Eigenvalue Method (power iteration or full decomposition)
+     * @param warmStart if true, power iteration starts from the previously computed local weights of each node
+     */
+    public void computeAllLocalWeights(EM eigenvalueMethod, boolean warmStart) {
+        for (int i = 0; i < hStructure.size() - 1; i++) {
+            for (Node node : hStructure.get(i)) {
+                if (!node.hasPairComparisons()) {
                     throw new NullPointerException("Null matrix of pairwise comparisons in structure");
                 }
-                ArrayList results = localWeightsAlg.computeLocal(node.getPairComparisons());
+                SimpleMatrix initialWeights = warmStart ? node.getLocalWeights() : null;
+                ArrayList results = eigenvalueMethod.computeLocal(node.getPairComparisons(), initialWeights);
                 node.setLocalWeights((SimpleMatrix) results.get(0));
                 node.setConsistencyIndex((double) results.get(1));
+                node.setDirty(false);
             }
         }
+        lastLocalWeightsAlg = eigenvalueMethod;
+        firstOutdatedGlobalLayer = 0;
     }
 
     public void computeAllFuzzyLocalWeights(FuzzyLocalWeightsAlg fuzzyLocalWeightsAlg) {
         for (int i = 0; i < hStructure.size() - 1; i++) {
             for (Node node : hStructure.get(i)) {
-                if (node.getFuzzyPairComparisons().get(0) == null ||
-                    node.getFuzzyPairComparisons().get(1) == null ||
-                    node.getFuzzyPairComparisons().get(2) == null) {
-                    throw new NullPointerException("Null fuzzy matrix of pairwise comparisons in structure");
-                }
+                computeFuzzyLocalWeights(fuzzyLocalWeightsAlg, node);
+            }
+        }
+    }
+
+    /**
+     * Computes fuzzy local weights of all nodes concurrently. Results are the same as of sequential computation.
+     * @param fuzzyLocalWeightsAlg algorithm, which instance is shared between threads
+     * @param executor executor for node computations, e.g. ForkJoinPool.commonPool()
+     */
+    public void computeAllFuzzyLocalWeights(FuzzyLocalWeightsAlg fuzzyLocalWeightsAlg, Executor executor) {
+        ArrayList<Node> nodes = getCriteriaNodes();
+        for (Node node : nodes) {
+            checkFuzzyPairComparisons(node);
+        }
+        ArrayList<CompletableFuture<Void>> tasks = new ArrayList<>(nodes.size());
+        for (Node node : nodes) {
+            tasks.add(CompletableFuture.runAsync(() -> computeFuzzyLocalWeights(fuzzyLocalWeightsAlg, node), executor));
+        }
+        joinAll(tasks);
+    }
+
+    private void computeFuzzyLocalWeights(FuzzyLocalWeightsAlg fuzzyLocalWeightsAlg, Node node) {
+        checkFuzzyPairComparisons(node);
+
+        TriangularFuzzyVector results = node.getFuzzyReciprocalPairComparisons() != null ?
+                fuzzyLocalWeightsAlg.computeFuzzyLocalVector(node.getFuzzyReciprocalPairComparisons()) :
+                fuzzyLocalWeightsAlg.computeFuzzyLocalVector(node.getFuzzyPairComparisons());
+        node.setFuzzyLocalWeights(results);
+    }
+
+    private void checkFuzzyPairComparisons(Node node) {
+        if (node.getFuzzyReciprocalPairComparisons() != null) {
+            return;
+        }
+        if (node.getFuzzyPairComparisons() == null ||
+            node.getFuzzyPairComparisons().get(0) == null ||
+            node.getFuzzyPairComparisons().get(1) == null ||
+            node.getFuzzyPairComparisons().get(2) == null) {
+            throw new NullPointerException("Null fuzzy matrix of pairwise comparisons in structure");
+        }
+    }
+
+    /**
+     * Returns all nodes which have pair comparisons of the next layer (all layers except the last one)
+     */
+    private ArrayList<Node> getCriteriaNodes() {
+        ArrayList<Node> nodes = new ArrayList<>();
+        for (int i = 0; i < hStructure.size() - 1; i++) {
+            nodes.addAll(hStructure.get(i));
+        }
+        return nodes;
+    }
 
-                ArrayList<SimpleMatrix> results = fuzzyLocalWeightsAlg.computeFuzzyLocal(node.getFuzzyPairComparisons());
-                node.setFuzzyLocalWeights(results);
+    /**
+     * Waits for all tasks and rethrows the first failure in the calling thread
+     */
+    private static void joinAll(ArrayList<CompletableFuture<Void>> tasks) {
+        try {
+            CompletableFuture.allOf(tasks.toArray(new CompletableFuture[tasks.size()])).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
             }
+            throw e;
         }
     }
 
@@ -131,13 +377,75 @@ public class Hierarchy {
         return hStructure.get(layer - 1).get(element).getConsistencyIndex();
     }
 
+    /**
+     * @return copy of fuzzy local weights {wL, wM, wU} or null, if they were not computed
+     */
     public ArrayList<SimpleMatrix> getFuzzyLocalWeights(int layer, int element) {
+        TriangularFuzzyVector fuzzyLocalWeights = getFuzzyLocalWeightsVector(layer, element);
+        return fuzzyLocalWeights == null ? null : fuzzyLocalWeights.toSimpleMatrices();
+    }
+
+    /**
+     * @return fuzzy local weights owned by hierarchy or null, if they were not computed
+     */
+    public TriangularFuzzyVector getFuzzyLocalWeightsVector(int layer, int element) {
         checkElementLayer(layer, element);
         return hStructure.get(layer - 1).get(element).getFuzzyLocalWeights();
     }
 
     public void computeAllGlobalWeights(GlobalWeightsAlg globalWeightsAlg) {
-        // Check if all local weights vectors are present
+        computeGlobalWeights(globalWeightsAlg, 0);
+    }
+
+    /**
+     * Recomputes global weights only of layers below nodes, which local weights were recomputed
+     * by recomputeLocalWeights. Results are the same as of computeAllGlobalWeights. If global weights were
+     * computed by another algorithm instance, all layers are recomputed. Global weights of alternative layer
+     * are always recomputed, since changes of its columns are not tracked.
+     * @return number of nodes, which global weights were recomputed
+     */
+    public int recomputeGlobalWeights(GlobalWeightsAlg globalWeightsAlg) {
+        if (globalWeightsAlg != lastGlobalWeightsAlg) {
+            return computeGlobalWeights(globalWeightsAlg, 0);
+        }
+        return computeGlobalWeights(globalWeightsAlg, firstOutdatedGlobalLayer);
+    }
+
+    /**
+     * Computes global weights of the last layer of nodes by distributed synthesis of chain of all layers,
+     * without global weights of intermediate layers, e.g. when only the last layer is ranked.
+     * Global weights of nodes are not changed.
+     * @return vector of global weights of the last layer of nodes
+     */
+    public SimpleMatrix computeLastLayerGlobalWeights(DistributedSynthesis distributedSynthesis) {
+        checkLocalWeights();
+        if (hStructure.size() == 1) {
+            return new SimpleMatrix(new double[][]{{1}});
+        }
+        SimpleMatrix goalWeights = hStructure.get(0).get(0).getLocalWeights();
+        if (hStructure.size() == 2) {
+            return goalWeights.copy();
+        }
+        ArrayList<SimpleMatrix> localLayers = new ArrayList<>(hStructure.size() - 2);
+        for (int i = 1; i < hStructure.size() - 1; i++) {
+            localLayers.add(getLocalLayer(i));
+        }
+        return distributedSynthesis.computeGlobal(goalWeights, localLayers);
+    }
+
+    /**
+     * Combines local weights of elements of layer i + 1 according to criteria of layer i into matrix,
+     * which columns correspond to criteria
+     */
+    private SimpleMatrix getLocalLayer(int i) {
+        SimpleMatrix localLayer = new SimpleMatrix(hStructure.get(i + 1).size(), hStructure.get(i).size());
+        for (int j = 0; j < hStructure.get(i).size(); j++) {
+            localLayer.insertIntoThis(0, j, hStructure.get(i).get(j).getLocalWeights());
+        }
+        return localLayer;
+    }
+
+    private void checkLocalWeights() {
         for (int i = 0; i < hStructure.size() - 1; i++) {
             for (Node node : hStructure.get(i)) {
                 if (node.getLocalWeights() == null) {
@@ -145,29 +453,44 @@ public class Hierarchy {
                 }
             }
         }
+    }
+
+    /**
+     * Computes global weights of layers starting with fromLayer
+     * @return number of nodes, which global weights were computed
+     */
+    private int computeGlobalWeights(GlobalWeightsAlg globalWeightsAlg, int fromLayer) {
+        // Check if all local weights vectors are present
+        checkLocalWeights();
+
+        lastGlobalWeightsAlg = globalWeightsAlg;
+        firstOutdatedGlobalLayer = getNumLayers();
+        int numComputed = 0;
 
         // Set global weight for goal = 1
-        hStructure.get(0).get(0).setGlobalWeight(1);
+        if (fromLayer == 0) {
+            hStructure.get(0).get(0).setGlobalWeight(1);
+            numComputed++;
+        }
 
         if (hStructure.size() == 1) {
-            return;
+            return numComputed;
         }
 
         // Set global weights for layer 1 (if exist) the same as local weights
-        ArrayList<Node> layer1 = hStructure.get(1);
-        for (int i = 0; i < layer1.size(); i++) {
-            double globWeight = hStructure.get(0).get(0).getLocalWeights().get(i);
-            layer1.get(i).setGlobalWeight(globWeight);
+        if (fromLayer <= 1) {
+            ArrayList<Node> layer1 = hStructure.get(1);
+            for (int i = 0; i < layer1.size(); i++) {
+                double globWeight = hStructure.get(0).get(0).getLocalWeights().get(i);
+                layer1.get(i).setGlobalWeight(globWeight);
+            }
+            numComputed += layer1.size();
         }
 
         // Set global weights for other layers by given algorithm
-        for (int i = 1; i < hStructure.size() - 1; i++) {
+        for (int i = Math.max(1, fromLayer - 1); i < hStructure.size() - 1; i++) {
 
-            // Combine all local weights into 1 matrix 'localLayer'
-            SimpleMatrix localLayer = hStructure.get(i).get(0).getLocalWeights();
-            for (int j = 1; j < hStructure.get(i).size(); j++) {
-                localLayer = localLayer.combine(0, localLayer.numCols(), hStructure.get(i).get(j).getLocalWeights());
-            }
+            SimpleMatrix localLayer = getLocalLayer(i);
 
             // Combine all global weights into 1 vector 'criteria'
             SimpleMatrix criteria = new SimpleMatrix(hStructure.get(i).size(), 1);
@@ -182,10 +505,21 @@ public class Hierarchy {
             for (int j = 0; j < hStructure.get(i + 1).size(); j++) {
                 hStructure.get(i + 1).get(j).setGlobalWeight(global.get(j));
             }
+            numComputed += hStructure.get(i + 1).size();
+        }
+
+        // Set global weights of alternatives by columns of local weights
+        if (alternatives != null) {
+            alternatives.computeGlobalWeights(getLayerGlobalWeights(hStructure.size() - 1), globalWeightsAlg);
+            numComputed += alternatives.getNumAlternatives();
         }
+        return numComputed;
     }
 
     public double getGlobalWeight(int layer, int element) {
+        if (isAlternativeLayer(layer)) {
+            return alternatives.getGlobalWeight(element);
+        }
         if (layer < 0 || layer >= hStructure.size()) {
             throw new IndexOutOfBoundsException("Incorrect layer index");
         }
@@ -196,6 +530,9 @@ public class Hierarchy {
     }
 
     public SimpleMatrix getLayerGlobalWeights(int layer) {
+        if (isAlternativeLayer(layer)) {
+            return AlternativeLayer.toSimpleMatrix(alternatives.getGlobalWeights());
+        }
         if (layer < 0 || layer >= hStructure.size()) {
             throw new IndexOutOfBoundsException("Incorrect layer index");
         }
@@ -217,79 +554,116 @@ public class Hierarchy {
             }
         }
 
-        final int W_GLOBAL_L = 0;
-        final int W_GLOBAL_U = 1;
-
-        final int W_LOCAL_L = 0;
-        final int W_LOCAL_U = 2;
-
-        // Set global fuzzy weight for goal = [1,1,1]
+        // Set global fuzzy weight for goal = [1,1]
         hStructure.get(0).get(0).setFuzzyGlobalWeight(1, 1);
 
         if (hStructure.size() == 1) {
             return;
         }
 
-        // Set global fuzzy weights for layer 1 (if exist) the same as local fuzzy weights
+        // Set global fuzzy weights for layer 1 (if exist) the same as bounds of local fuzzy weights
         ArrayList<Node> layer1 = hStructure.get(1);
+        TriangularFuzzyVector goalLocal = hStructure.get(0).get(0).getFuzzyLocalWeights();
         for (int i = 0; i < layer1.size(); i++) {
-            double globWeightL = hStructure.get(0).get(0).getFuzzyLocalWeights().get(W_LOCAL_L).get(i);
-            double globWeightU = hStructure.get(0).get(0).getFuzzyLocalWeights().get(W_LOCAL_U).get(i);
-            layer1.get(i).setFuzzyGlobalWeight(globWeightL, globWeightU);
+            layer1.get(i).setFuzzyGlobalWeight(goalLocal.getLower()[i], goalLocal.getUpper()[i]);
         }
 
         // Set global fuzzy weights for following layers by given algorithm
         for (int i = 1; i < hStructure.size() - 1; i++) {
-
-            // Combine all local fuzzy weights into ArrayList 'localLayer'
-            ArrayList<SimpleMatrix> localLayer = new ArrayList<>(2);
-            SimpleMatrix localLayerL = hStructure.get(i).get(0).getFuzzyLocalWeights().get(W_LOCAL_L);
-            SimpleMatrix localLayerU = hStructure.get(i).get(0).getFuzzyLocalWeights().get(W_LOCAL_U);
-            for (int j = 1; j < hStructure.get(i).size(); j++) {
-                localLayerL = localLayerL.combine(0, localLayerL.numCols(), hStructure.get(i).get(j).getFuzzyLocalWeights().get(W_LOCAL_L));
-                localLayerU = localLayerU.combine(0, localLayerU.numCols(), hStructure.get(i).get(j).getFuzzyLocalWeights().get(W_LOCAL_U));
-            }
-            localLayer.add(W_GLOBAL_L, localLayerL);
-            localLayer.add(W_GLOBAL_U, localLayerU);
-
-            // Combine all global weights into ArrayList weightsCriteria
-            ArrayList<SimpleMatrix> weightsCriteria = new ArrayList<>(2);
-            SimpleMatrix criteriaL = new SimpleMatrix(hStructure.get(i).size(), 1);
-            SimpleMatrix criteriaU = new SimpleMatrix(hStructure.get(i).size(), 1);
-            for (int j = 0; j < hStructure.get(i).size(); j++) {
-                criteriaL.set(j, hStructure.get(i).get(j).getFuzzyGlobalWeight().get(W_GLOBAL_L));
-                criteriaU.set(j, hStructure.get(i).get(j).getFuzzyGlobalWeight().get(W_GLOBAL_U));
+            final int numCriteria = hStructure.get(i).size();
+            final int numElements = hStructure.get(i + 1).size();
+
+            // Combine bounds of local fuzzy weights into matrices, which columns correspond to criteria
+            SimpleMatrix localLayerL = new SimpleMatrix(numElements, numCriteria);
+            SimpleMatrix localLayerU = new SimpleMatrix(numElements, numCriteria);
+            double[] dataL = localLayerL.getMatrix().getData();
+            double[] dataU = localLayerU.getMatrix().getData();
+            for (int j = 0; j < numCriteria; j++) {
+                TriangularFuzzyVector local = hStructure.get(i).get(j).getFuzzyLocalWeights();
+                for (int r = 0; r < numElements; r++) {
+                    dataL[r * numCriteria + j] = local.getLower()[r];
+                    dataU[r * numCriteria + j] = local.getUpper()[r];
+                }
             }
-            weightsCriteria.add(W_GLOBAL_L, criteriaL);
-            weightsCriteria.add(W_GLOBAL_U, criteriaU);
+            ArrayList<SimpleMatrix> localLayer = new ArrayList<>(2);
+            localLayer.add(localLayerL);
+            localLayer.add(localLayerU);
 
             // Find global fuzzy weights for level
-            ArrayList<SimpleMatrix> fuzzyGlobal = fuzzyGlobalWeightsAlg.computeFuzzyGlobal(weightsCriteria, localLayer);
+            IntervalVector fuzzyGlobal = fuzzyGlobalWeightsAlg.computeFuzzyGlobal(getLayerFuzzyGlobalWeightsVector(i),
+                    localLayer);
 
             // Set global fuzzy weights for nodes
-            for (int j = 0; j < hStructure.get(i + 1).size(); j++) {
-                hStructure.get(i + 1).get(j).setFuzzyGlobalWeight(fuzzyGlobal.get(W_GLOBAL_L).get(j), fuzzyGlobal.get(W_GLOBAL_U).get(j));
+            for (int j = 0; j < numElements; j++) {
+                hStructure.get(i + 1).get(j).setFuzzyGlobalWeight(fuzzyGlobal.getLower()[j], fuzzyGlobal.getUpper()[j]);
             }
         }
+
+        // Set global fuzzy weights of alternatives by blocks of columns of local fuzzy weights
+        if (alternatives != null) {
+            alternatives.computeFuzzyGlobalWeights(getLayerFuzzyGlobalWeightsVector(hStructure.size() - 1),
+                    fuzzyGlobalWeightsAlg);
+        }
     }
 
+    /**
+     * @return copy of fuzzy global weights {wL, wU} of layer
+     */
     public ArrayList<SimpleMatrix> getLayerFuzzyGlobalWeights(int layer) {
+        return getLayerFuzzyGlobalWeightsVector(layer).toSimpleMatrices();
+    }
+
+    /**
+     * @return new vector of interval global weights of layer
+     */
+    public IntervalVector getLayerFuzzyGlobalWeightsVector(int layer) {
+        if (isAlternativeLayer(layer)) {
+            return alternatives.getLayerFuzzyGlobalWeights();
+        }
         if (layer < 0 || layer >= hStructure.size()) {
             throw new IndexOutOfBoundsException("Incorrect layer index");
         }
         ArrayList<Node> hLayer = hStructure.get(layer);
-        ArrayList<SimpleMatrix> fuzzyGlobal = new ArrayList<>(2);
-        SimpleMatrix globalL = new SimpleMatrix(hLayer.size(), 1);
-        SimpleMatrix globalU = new SimpleMatrix(hLayer.size(), 1);
+        IntervalVector fuzzyGlobal = new IntervalVector(hLayer.size());
         for (int i = 0; i < hLayer.size(); i++) {
-            globalL.set(i, hLayer.get(i).getFuzzyGlobalWeight().get(0));
-            globalU.set(i, hLayer.get(i).getFuzzyGlobalWeight().get(1));
+            fuzzyGlobal.set(i, hLayer.get(i).getFuzzyGlobalWeight(0), hLayer.get(i).getFuzzyGlobalWeight(1));
         }
-        fuzzyGlobal.add(0, globalL);
-        fuzzyGlobal.add(1, globalU);
         return fuzzyGlobal;
     }
 
+    /**
+     * Compiles hierarchy into plan for repeated evaluation of the same structure.
+     * Current matrices of pair comparisons and local weights are copied into plan.
+     * @return plan, which does not depend on further changes of hierarchy
+     * @throws UnsupportedOperationException if alternatives are stored in alternative layer
+     */
+    public HierarchyPlan compile() {
+        if (alternatives != null) {
+            throw new UnsupportedOperationException("Hierarchy with alternative layer can not be compiled");
+        }
+        int[] layerSizes = new int[hStructure.size()];
+        for (int i = 0; i < hStructure.size(); i++) {
+            layerSizes[i] = hStructure.get(i).size();
+        }
+
+        HierarchyPlan plan = new HierarchyPlan(layerSizes);
+        for (int i = 0; i < hStructure.size() - 1; i++) {
+            for (int j = 0; j < hStructure.get(i).size(); j++) {
+                Node node = hStructure.get(i).get(j);
+                if (node.hasPairComparisons()) {
+                    // Packed matrix is already expanded into new matrix
+                    SimpleMatrix pairComparisons = node.getReciprocalPairComparisons() != null ?
+                            node.getPairComparisons() : node.getPairComparisons().copy();
+                    plan.setPairComparisonsMatrix(i + 1, j, pairComparisons);
+                }
+                if (node.getLocalWeights() != null) {
+                    plan.setLocalWeights(i + 1, j, node.getLocalWeights(), node.getConsistencyIndex());
+                }
+            }
+        }
+        return plan;
+    }
+
     public void checkElementLayer(int layer, int element) {
         if (layer <= 0 || layer >= hStructure.size()) {
             throw new IndexOutOfBoundsException("Incorrect layer index");
@@ -308,6 +682,10 @@ public class Hierarchy {
             }
             hierarchy += "\n";
         }
+        if (alternatives != null) {
+            final int i = hStructure.size();
+            hierarchy += "{" + i + "_0} ... {" + i + "_" + (alternatives.getNumAlternatives() - 1) + "}\n";
+        }
         return hierarchy;
     }
 }
@@ -0,0 +1,205 @@
+import globalMethods.GlobalWeightsAlg;
+import localMethods.LocalWeightsAlg;
+import localMethods.Workspace;
+import org.ejml.simple.SimpleMatrix;
+
+/**
+ * Compiled form of Hierarchy for repeated evaluation of the same structure with different judgments.
+ * Local weights of each layer are kept in one preallocated matrix, which j-th column holds local weights
+ * of elements according to j-th element of the previous layer. Global weights of each layer are kept
+ * in one preallocated vector. Evaluation does not rebuild matrices and does not touch Node objects.
+ * Weights are computed into preallocated arrays by algorithms, which support workspace, so that repeated
+ * evaluation does not allocate. Plan is not thread-safe.
+ */
+public class HierarchyPlan {
+    private final int[] layerSizes;
+
+    /**
+     * pairComparisons[layer - 1][element] - matrix of comparisons of layer elements according to element
+     */
+    private final SimpleMatrix[][] pairComparisons;
+    private final double[][] consistencyIndices;
+    private final boolean[][] hasLocalWeights;
+
+    /**
+     * localLayers[layer - 1] - matrix layerSizes[layer] x layerSizes[layer - 1] of local weights
+     */
+    private final SimpleMatrix[] localLayers;
+
+    /**
+     * globalLayers[layer] - vector of global weights of layer
+     */
+    private final SimpleMatrix[] globalLayers;
+
+    /**
+     * Buffer of local weights of one element and buffers of algorithms
+     */
+    private final double[] localWeights;
+    private final Workspace workspace = new Workspace();
+
+    HierarchyPlan(int[] layerSizes) {
+        this.layerSizes = layerSizes.clone();
+        final int numLayers = layerSizes.length;
+
+        pairComparisons = new SimpleMatrix[numLayers - 1][];
+        consistencyIndices = new double[numLayers - 1][];
+        hasLocalWeights = new boolean[numLayers - 1][];
+        localLayers = new SimpleMatrix[numLayers - 1];
+        for (int i = 0; i < numLayers - 1; i++) {
+            pairComparisons[i] = new SimpleMatrix[layerSizes[i]];
+            consistencyIndices[i] = new double[layerSizes[i]];
+            hasLocalWeights[i] = new boolean[layerSizes[i]];
+            localLayers[i] = new SimpleMatrix(layerSizes[i + 1], layerSizes[i]);
+        }
+
+        globalLayers = new SimpleMatrix[numLayers];
+        int maxLayerSize = 0;
+        for (int i = 0; i < numLayers; i++) {
+            globalLayers[i] = new SimpleMatrix(layerSizes[i], 1);
+            maxLayerSize = Math.max(maxLayerSize, layerSizes[i]);
+        }
+        localWeights = new double[maxLayerSize];
+    }
+
+    public int getNumLayers() {
+        return layerSizes.length;
+    }
+
+    public int getNumElementsPerLayer(int layer) {
+        return layerSizes[layer];
+    }
+
+    /**
+     * Sets the matrix of pair comparisons. Matrix is stored by reference, so changes of its elements are used by
+     * next computations, e.g. matrices sampled in place by MonteCarloSimulation.
+     * @param layer index of layer which matrix was built for. Goal has layer with index 0.
+     * @param element index of element according to which comparisons was conducted
+     * @param pairComparisons matrix of pair comparisons that should satisfy definition
+     */
+    public void setPairComparisonsMatrix(int layer, int element, SimpleMatrix pairComparisons) {
+        checkElementLayer(layer, element);
+        if (pairComparisons.numCols() != pairComparisons.numRows() ||
+            pairComparisons.numCols() != layerSizes[layer]) {
+            throw new IndexOutOfBoundsException("Matrix has incorrect dimensions");
+        }
+        this.pairComparisons[layer - 1][element] = pairComparisons;
+    }
+
+    public SimpleMatrix getPairComparisonsMatrix(int layer, int element) {
+        checkElementLayer(layer, element);
+        return pairComparisons[layer - 1][element];
+    }
+
+    public void computeAllLocalWeights(LocalWeightsAlg localWeightsAlg) {
+        for (int i = 1; i < layerSizes.length; i++) {
+            for (int j = 0; j < layerSizes[i - 1]; j++) {
+                if (pairComparisons[i - 1][j] == null) {
+                    throw new NullPointerException("Null matrix of pairwise comparisons in structure");
+                }
+                double consistencyIndex = localWeightsAlg.computeLocal(pairComparisons[i - 1][j].getMatrix().getData(),
+                        layerSizes[i], localWeights, workspace);
+                setLocalWeights(i, j, localWeights, consistencyIndex);
+            }
+        }
+    }
+
+    /**
+     * Copies local weights into column of layer matrix
+     */
+    void setLocalWeights(int layer, int element, SimpleMatrix localWeights, double consistencyIndex) {
+        setLocalWeights(layer, element, localWeights.getMatrix().getData(), consistencyIndex);
+    }
+
+    private void setLocalWeights(int layer, int element, double[] localWeights, double consistencyIndex) {
+        SimpleMatrix localLayer = localLayers[layer - 1];
+        double[] data = localLayer.getMatrix().getData();
+        final int numCols = localLayer.numCols();
+        for (int r = 0; r < localLayer.numRows(); r++) {
+            data[r * numCols + element] = localWeights[r];
+        }
+        consistencyIndices[layer - 1][element] = consistencyIndex;
+        hasLocalWeights[layer - 1][element] = true;
+    }
+
+    /**
+     * Returns local weights of layer elements according to the element of previous layer
+     * @return new vector with copy of weights
+     */
+    public SimpleMatrix getLocalWeights(int layer, int element) {
+        checkElementLayer(layer, element);
+        return localLayers[layer - 1].extractVector(false, element);
+    }
+
+    /**
+     * Returns matrix of local weights of layer, j-th column holds local weights according to j-th element
+     * of the previous layer. Matrix is owned by plan and is overwritten by computeAllLocalWeights.
+     */
+    public SimpleMatrix getLayerLocalWeights(int layer) {
+        checkElementLayer(layer, 0);
+        return localLayers[layer - 1];
+    }
+
+    public double getConsistencyIndex(int layer, int element) {
+        checkElementLayer(layer, element);
+        return consistencyIndices[layer - 1][element];
+    }
+
+    public void computeAllGlobalWeights(GlobalWeightsAlg globalWeightsAlg) {
+        // Check if all local weights vectors are present
+        for (boolean[] layer : hasLocalWeights) {
+            for (boolean present : layer) {
+                if (!present) {
+                    throw new NullPointerException("Null vector of local weights in structure");
+                }
+            }
+        }
+
+        // Set global weight for goal = 1
+        globalLayers[0].set(0, 1);
+
+        if (layerSizes.length == 1) {
+            return;
+        }
+
+        // Set global weights for layer 1 the same as local weights
+        double[] layer1 = globalLayers[1].getMatrix().getData();
+        double[] local0 = localLayers[0].getMatrix().getData();
+        System.arraycopy(local0, 0, layer1, 0, layer1.length);
+
+        // Set global weights for other layers by given algorithm
+        for (int i = 1; i < layerSizes.length - 1; i++) {
+            globalWeightsAlg.computeGlobal(globalLayers[i].getMatrix().getData(), layerSizes[i],
+                    localLayers[i].getMatrix().getData(), layerSizes[i + 1], globalLayers[i + 1].getMatrix().getData(),
+                    workspace);
+        }
+    }
+
+    public double getGlobalWeight(int layer, int element) {
+        if (layer < 0 || layer >= layerSizes.length) {
+            throw new IndexOutOfBoundsException("Incorrect layer index");
+        }
+        if (element < 0 || element >= layerSizes[layer]) {
+            throw new IndexOutOfBoundsException("Incorrect element index");
+        }
+        return globalLayers[layer].get(element);
+    }
+
+    /**
+     * Returns vector of global weights of layer. Vector is owned by plan and is overwritten by computeAllGlobalWeights.
+     */
+    public SimpleMatrix getLayerGlobalWeights(int layer) {
+        if (layer < 0 || layer >= layerSizes.length) {
+            throw new IndexOutOfBoundsException("Incorrect layer index");
+        }
+        return globalLayers[layer];
+    }
+
+    public void checkElementLayer(int layer, int element) {
+        if (layer <= 0 || layer >= layerSizes.length) {
+            throw new IndexOutOfBoundsException("Incorrect layer index");
+        }
+        if (element < 0 || element >= layerSizes[layer - 1]) {
+            throw new IndexOutOfBoundsException("Incorrect element index");
+        }
+    }
+}
@@ -0,0 +1,265 @@
+import globalMethods.GlobalWeightsAlg;
+import localMethods.LocalWeightsAlg;
+import org.ejml.simple.SimpleMatrix;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Monte Carlo propagation of uncertainty of fuzzy judgments through the hierarchy.
+ * Each sample draws crisp reciprocal matrices, which elements a_ij (i < j) have triangular distribution
+ * (L, M, U) of fuzzy pair comparisons, computes global weights of the last layer by given algorithms
+ * and adds them to statistics of alternatives. Samples are split into chunks with own random generators
+ * split from seed, so results do not depend on the number of threads.
+ */
+public class MonteCarloSimulation {
+    private static final int CHUNK_SIZE = 1024;
+
+    /**
+     * Number of histogram bins on [0, 1], quantiles are computed with resolution 1 / HISTOGRAM_BINS
+     */
+    private static final int HISTOGRAM_BINS = 4096;
+
+    private final int[] layerSizes;
+    private final int numAlternatives;
+
+    /**
+     * fuzzyComparisons[layer - 1][element] - {AL, AM, AU} of element, stored by rows
+     */
+    private final double[][][][] fuzzyComparisons;
+
+    /**
+     * Copies fuzzy matrices of pair comparisons of hierarchy, later changes of hierarchy are not visible
+     * @param hierarchy hierarchy with all fuzzy matrices of pair comparisons
+     */
+    public MonteCarloSimulation(Hierarchy hierarchy) {
+        final int numLayers = hierarchy.getNumLayers();
+        if (numLayers < 2) {
+            throw new IllegalArgumentException("Hierarchy should have at least one layer below goal");
+        }
+        layerSizes = new int[numLayers];
+        for (int i = 0; i < numLayers; i++) {
+            layerSizes[i] = hierarchy.getNumElementsPerLayer(i);
+        }
+        numAlternatives = layerSizes[numLayers - 1];
+
+        fuzzyComparisons = new double[numLayers - 1][][][];
+        for (int layer = 1; layer < numLayers; layer++) {
+            fuzzyComparisons[layer - 1] = new double[layerSizes[layer - 1]][3][];
+            for (int element = 0; element < layerSizes[layer - 1]; element++) {
+                for (int k = 0; k < 3; k++) {
+                    SimpleMatrix matrix = hierarchy.getFuzzyPairComparisonsMatrix(layer, element, k);
+                    if (matrix == null) {
+                        throw new NullPointerException("Null matrix of pairwise comparisons in structure");
+                    }
+                    fuzzyComparisons[layer - 1][element][k] = matrix.getMatrix().getData().clone();
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs simulation in parallel on common ForkJoinPool
+     * @param localWeightsAlg algorithm, which instance is shared between threads
+     * @param globalWeightsAlg algorithm, which instance is shared between threads
+     * @param numSamples number of samples
+     * @param seed seed of random generator, equal seeds give equal results
+     * @return statistics of global weights of alternatives (elements of the last layer)
+     */
+    public Result run(LocalWeightsAlg localWeightsAlg, GlobalWeightsAlg globalWeightsAlg, int numSamples, long seed) {
+        if (numSamples <= 0) {
+            throw new IllegalArgumentException("Number of samples should be greater than zero");
+        }
+        final int numChunks = (numSamples + CHUNK_SIZE - 1) / CHUNK_SIZE;
+
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom[] random = new SplittableRandom[numChunks];
+        for (int c = 0; c < numChunks; c++) {
+            random[c] = root.split();
+        }
+
+        // Sums are kept per chunk and added in chunk order, so that they do not depend on scheduling
+        double[][] chunkSums = new double[numChunks][numAlternatives];
+        List<Workspace> workspaces = Collections.synchronizedList(new ArrayList<>());
+        ThreadLocal<Workspace> workspace = ThreadLocal.withInitial(() -> {
+            Workspace w = new Workspace();
+            workspaces.add(w);
+            return w;
+        });
+
+        IntStream.range(0, numChunks).parallel().forEach(c -> {
+            Workspace w = workspace.get();
+            int numChunkSamples = Math.min(CHUNK_SIZE, numSamples - c * CHUNK_SIZE);
+            for (int s = 0; s < numChunkSamples; s++) {
+                w.sample(random[c]);
+                w.plan.computeAllLocalWeights(localWeightsAlg);
+                w.plan.computeAllGlobalWeights(globalWeightsAlg);
+                w.accumulate(chunkSums[c]);
+            }
+        });
+
+        double[] means = new double[numAlternatives];
+        for (double[] sums : chunkSums) {
+            for (int i = 0; i < numAlternatives; i++) {
+                means[i] += sums[i];
+            }
+        }
+        for (int i = 0; i < numAlternatives; i++) {
+            means[i] /= numSamples;
+        }
+
+        long[][] histogram = new long[numAlternatives][HISTOGRAM_BINS];
+        long[][] rankCounts = new long[numAlternatives][numAlternatives];
+        for (Workspace w : workspaces) {
+            for (int i = 0; i < numAlternatives; i++) {
+                for (int b = 0; b < HISTOGRAM_BINS; b++) {
+                    histogram[i][b] += w.histogram[i][b];
+                }
+                for (int r = 0; r < numAlternatives; r++) {
+                    rankCounts[i][r] += w.rankCounts[i][r];
+                }
+            }
+        }
+        return new Result(numSamples, means, histogram, rankCounts);
+    }
+
+    /**
+     * Draws value of triangular distribution (l, m, u) by inverse distribution function
+     */
+    static double triangular(double l, double m, double u, double uniform) {
+        final double range = u - l;
+        if (range <= 0) {
+            return m;
+        }
+        if (uniform * range < m - l) {
+            return l + Math.sqrt(uniform * range * (m - l));
+        }
+        return u - Math.sqrt((1 - uniform) * range * (u - m));
+    }
+
+    /**
+     * Buffers of one thread: sampled matrices, compiled hierarchy and statistics counters
+     */
+    private class Workspace {
+        private final HierarchyPlan plan = new HierarchyPlan(layerSizes);
+        private final double[][][] samples = new double[layerSizes.length - 1][][];
+        private final long[][] histogram = new long[numAlternatives][HISTOGRAM_BINS];
+        private final long[][] rankCounts = new long[numAlternatives][numAlternatives];
+
+        Workspace() {
+            for (int layer = 1; layer < layerSizes.length; layer++) {
+                samples[layer - 1] = new double[layerSizes[layer - 1]][];
+                for (int element = 0; element < layerSizes[layer - 1]; element++) {
+                    SimpleMatrix matrix = new SimpleMatrix(layerSizes[layer], layerSizes[layer]);
+                    samples[layer - 1][element] = matrix.getMatrix().getData();
+                    plan.setPairComparisonsMatrix(layer, element, matrix);
+                }
+            }
+        }
+
+        void sample(SplittableRandom random) {
+            for (int layer = 1; layer < layerSizes.length; layer++) {
+                final int n = layerSizes[layer];
+                for (int element = 0; element < layerSizes[layer - 1]; element++) {
+                    double[] a = samples[layer - 1][element];
+                    double[][] fuzzy = fuzzyComparisons[layer - 1][element];
+                    for (int i = 0; i < n; i++) {
+                        a[i * n + i] = 1;
+                        for (int j = i + 1; j < n; j++) {
+                            int k = i * n + j;
+                            double x = triangular(fuzzy[0][k], fuzzy[1][k], fuzzy[2][k], random.nextDouble());
+                            a[k] = x;
+                            a[j * n + i] = 1 / x;
+                        }
+                    }
+                }
+            }
+        }
+
+        void accumulate(double[] sums) {
+            double[] w = plan.getLayerGlobalWeights(layerSizes.length - 1).getMatrix().getData();
+            for (int i = 0; i < numAlternatives; i++) {
+                sums[i] += w[i];
+                int bin = (int) (w[i] * HISTOGRAM_BINS);
+                histogram[i][Math.max(0, Math.min(HISTOGRAM_BINS - 1, bin))]++;
+
+                // Rank is number of alternatives with greater weight, ties are ranked by index
+                int rank = 0;
+                for (int k = 0; k < numAlternatives; k++) {
+                    if (w[k] > w[i] || (w[k] == w[i] && k < i)) {
+                        rank++;
+                    }
+                }
+                rankCounts[i][rank]++;
+            }
+        }
+    }
+
+    /**
+     * Statistics of global weights of alternatives over all samples
+     */
+    public static class Result {
+        private final int numSamples;
+        private final double[] means;
+        private final long[][] histogram;
+        private final long[][] rankCounts;
+
+        private Result(int numSamples, double[] means, long[][] histogram, long[][] rankCounts) {
+            this.numSamples = numSamples;
+            this.means = means;
+            this.histogram = histogram;
+            this.rankCounts = rankCounts;
+        }
+
+        public int getNumSamples() {
+            return numSamples;
+        }
+
+        public int getNumAlternatives() {
+            return means.length;
+        }
+
+        public double getMean(int alternative) {
+            return means[alternative];
+        }
+
+        public SimpleMatrix getMeans() {
+            SimpleMatrix mean = new SimpleMatrix(means.length, 1);
+            for (int i = 0; i < means.length; i++) {
+                mean.set(i, means[i]);
+            }
+            return mean;
+        }
+
+        /**
+         * Returns quantile of global weight of alternative, interpolated inside histogram bin
+         * @param probability probability from [0, 1]
+         */
+        public double getQuantile(int alternative, double probability) {
+            if (probability < 0 || probability > 1) {
+                throw new IllegalArgumentException("Probability should be in [0, 1]");
+            }
+            final double target = probability * numSamples;
+            long cumulative = 0;
+            for (int b = 0; b < HISTOGRAM_BINS; b++) {
+                long count = histogram[alternative][b];
+                if (count > 0 && cumulative + count >= target) {
+                    return (b + (target - cumulative) / count) / HISTOGRAM_BINS;
+                }
+                cumulative += count;
+            }
+            return 1;
+        }
+
+        /**
+         * Returns probability that alternative has given rank
+         * @param rank rank of alternative, 0 - the best alternative
+         */
+        public double getRankProbability(int alternative, int rank) {
+            return (double) rankCounts[alternative][rank] / numSamples;
+        }
+    }
+}
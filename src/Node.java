@@ -1,11 +1,21 @@
+import fuzzyLocal.FuzzyReciprocalMatrix;
+import fuzzyLocal.TriangularFuzzyVector;
+import localMethods.ReciprocalMatrix;
 import org.ejml.simple.SimpleMatrix;
+import storage.JudgmentStore;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 
 public class Node {
     private String name;
     private double globalWeight;
     private SimpleMatrix pairComparisons;
+    /**
+     * Packed pair comparisons, used instead of pairComparisons if not null
+     */
+    private ReciprocalMatrix reciprocalPairComparisons;
     /**
      * Local weights of elements dependent on i-th criterion (of the previous layer)
      */
@@ -14,14 +24,36 @@ public class Node {
     private double consistencyIndex;
 
     /**
-     * 0 - W_L, 1 - W_U
+     * True if pair comparisons were changed after local weights were computed
+     */
+    private boolean dirty = true;
+
+    /**
+     * Bounds of interval global weight
      */
-    private ArrayList<Double> fuzzyGlobalWeight;
+    private double fuzzyGlobalWeightL;
+    private double fuzzyGlobalWeightU;
     /**
      * 0 - W_L; 1 - W_M; 2 - W_U
      */
     private ArrayList<SimpleMatrix> fuzzyPairComparisons;
-    private ArrayList<SimpleMatrix> fuzzyLocalWeights;
+    /**
+     * Packed fuzzy pair comparisons, used instead of fuzzyPairComparisons if not null
+     */
+    private FuzzyReciprocalMatrix fuzzyReciprocalPairComparisons;
+    private TriangularFuzzyVector fuzzyLocalWeights;
+
+    /**
+     * Store which matrices of node are read from on first access, or null
+     */
+    private JudgmentStore judgments;
+    private int judgmentsLayer;
+    private int judgmentsElement;
+    /**
+     * True if crisp (fuzzy) matrices are present in store and were not read or replaced yet
+     */
+    private boolean crispInStore;
+    private boolean fuzzyInStore;
 
     public Node() {
 
@@ -48,12 +80,92 @@ public class Node {
         this.name = name;
     }
 
+    /**
+     * Returns matrix of pair comparisons, packed matrix is expanded into new dense matrix on every call,
+     * so changes of returned copy do not affect node
+     */
     public SimpleMatrix getPairComparisons() {
+        readPairComparisons();
+        if (reciprocalPairComparisons != null) {
+            return reciprocalPairComparisons.toSimpleMatrix();
+        }
         return pairComparisons;
     }
 
     public void setPairComparisons(SimpleMatrix pairComparisons) {
         this.pairComparisons = pairComparisons;
+        this.reciprocalPairComparisons = null;
+        this.crispInStore = false;
+        this.dirty = true;
+    }
+
+    public boolean hasPairComparisons() {
+        return pairComparisons != null || reciprocalPairComparisons != null || crispInStore;
+    }
+
+    public ReciprocalMatrix getReciprocalPairComparisons() {
+        return reciprocalPairComparisons;
+    }
+
+    public void setPairComparisons(ReciprocalMatrix pairComparisons) {
+        this.reciprocalPairComparisons = pairComparisons;
+        this.pairComparisons = null;
+        this.crispInStore = false;
+        this.dirty = true;
+    }
+
+    /**
+     * Attaches store, matrices of node present in store replace current ones and are read on first access.
+     * Store should stay open until matrices are read.
+     * @param layer index of layer which matrices were built for
+     * @param element index of node in its layer
+     */
+    public void setJudgments(JudgmentStore judgments, int layer, int element) {
+        this.judgments = judgments;
+        this.judgmentsLayer = layer;
+        this.judgmentsElement = element;
+        this.crispInStore = judgments.hasPairComparisonsMatrix(layer, element);
+        this.fuzzyInStore = false;
+        for (int k = 0; k < 3; k++) {
+            this.fuzzyInStore |= judgments.hasFuzzyPairComparisonsMatrix(layer, element, k);
+        }
+        if (crispInStore) {
+            this.pairComparisons = null;
+            this.reciprocalPairComparisons = null;
+            this.dirty = true;
+        }
+        if (fuzzyInStore) {
+            this.fuzzyPairComparisons = null;
+            this.fuzzyReciprocalPairComparisons = null;
+        }
+    }
+
+    private void readPairComparisons() {
+        if (!crispInStore) {
+            return;
+        }
+        try {
+            pairComparisons = judgments.getPairComparisonsMatrix(judgmentsLayer, judgmentsElement);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        crispInStore = false;
+    }
+
+    private void readFuzzyPairComparisons() {
+        if (!fuzzyInStore) {
+            return;
+        }
+        ArrayList<SimpleMatrix> matrices = new ArrayList<>(3);
+        try {
+            for (int k = 0; k < 3; k++) {
+                matrices.add(k, judgments.getFuzzyPairComparisonsMatrix(judgmentsLayer, judgmentsElement, k));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        fuzzyPairComparisons = matrices;
+        fuzzyInStore = false;
     }
 
     public SimpleMatrix getLocalWeights() {
@@ -64,6 +176,14 @@ public class Node {
         this.localWeights = localWeights;
     }
 
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    public void setDirty(boolean dirty) {
+        this.dirty = dirty;
+    }
+
     public double getConsistencyIndex() {
         return consistencyIndex;
     }
@@ -72,26 +192,46 @@ public class Node {
         this.consistencyIndex = consistencyIndex;
     }
 
-    public ArrayList<SimpleMatrix> getFuzzyLocalWeights() {
+    public TriangularFuzzyVector getFuzzyLocalWeights() {
         return fuzzyLocalWeights;
     }
 
-    public void setFuzzyLocalWeights(ArrayList<SimpleMatrix> fuzzyLocalWeights) {
+    public void setFuzzyLocalWeights(TriangularFuzzyVector fuzzyLocalWeights) {
         this.fuzzyLocalWeights = fuzzyLocalWeights;
     }
 
-    public void setFuzzyLocalWeights(SimpleMatrix wl, SimpleMatrix wm, SimpleMatrix wu) {
-        this.fuzzyLocalWeights.add(0, wl);
-        this.fuzzyLocalWeights.add(1, wm);
-        this.fuzzyLocalWeights.add(2, wu);
-    }
-
+    /**
+     * Returns fuzzy matrices of pair comparisons, packed matrix is expanded into new dense matrices on every
+     * call, so changes of returned copies do not affect node
+     */
     public ArrayList<SimpleMatrix> getFuzzyPairComparisons() {
+        readFuzzyPairComparisons();
+        if (fuzzyReciprocalPairComparisons != null) {
+            return fuzzyReciprocalPairComparisons.toSimpleMatrices();
+        }
         return fuzzyPairComparisons;
     }
 
+    /**
+     * @param fuzzyIndex 0 - L, 1 - M, 2 - U
+     * @return matrix, packed matrix is expanded into new copy
+     */
     public SimpleMatrix getFuzzyPairComparisons(int fuzzyIndex) {
-        return fuzzyPairComparisons.get(fuzzyIndex);
+        readFuzzyPairComparisons();
+        if (fuzzyReciprocalPairComparisons != null) {
+            return fuzzyReciprocalPairComparisons.toSimpleMatrix(fuzzyIndex);
+        }
+        return fuzzyPairComparisons == null ? null : fuzzyPairComparisons.get(fuzzyIndex);
+    }
+
+    public FuzzyReciprocalMatrix getFuzzyReciprocalPairComparisons() {
+        return fuzzyReciprocalPairComparisons;
+    }
+
+    public void setFuzzyPairComparisons(FuzzyReciprocalMatrix fuzzyPairComparisons) {
+        this.fuzzyReciprocalPairComparisons = fuzzyPairComparisons;
+        this.fuzzyPairComparisons = null;
+        this.fuzzyInStore = false;
     }
 
     /**
@@ -100,6 +240,11 @@ public class Node {
      * @param pairComparisons matrix of pair comparisons
      */
     public void setFuzzyPairComparisons(int fuzzyIndex, SimpleMatrix pairComparisons) {
+        readFuzzyPairComparisons();
+        if (this.fuzzyReciprocalPairComparisons != null) {
+            this.fuzzyPairComparisons = this.fuzzyReciprocalPairComparisons.toSimpleMatrices();
+            this.fuzzyReciprocalPairComparisons = null;
+        }
         if (this.fuzzyPairComparisons == null) {
             this.fuzzyPairComparisons = new ArrayList<>(3);
             for (int i = 0; i < 3; i++) {
@@ -111,6 +256,8 @@ public class Node {
 
     public void setFuzzyPairComparisons(ArrayList<SimpleMatrix> fuzzyPairComparisons) {
         this.fuzzyPairComparisons = fuzzyPairComparisons;
+        this.fuzzyReciprocalPairComparisons = null;
+        this.fuzzyInStore = false;
     }
 
     public void setFuzzyPairComparisons(SimpleMatrix al, SimpleMatrix am, SimpleMatrix au) {
@@ -119,22 +266,15 @@ public class Node {
         this.fuzzyPairComparisons.add(2, au);
     }
 
-    public ArrayList<Double> getFuzzyGlobalWeight() {
-        return fuzzyGlobalWeight;
-    }
-
-    public void setFuzzyGlobalWeight(ArrayList<Double> fuzzyGlobalWeight) {
-        this.fuzzyGlobalWeight = fuzzyGlobalWeight;
+    /**
+     * @param bound 0 - W_L, 1 - W_U
+     */
+    public double getFuzzyGlobalWeight(int bound) {
+        return bound == 0 ? fuzzyGlobalWeightL : fuzzyGlobalWeightU;
     }
 
     public void setFuzzyGlobalWeight(double globalWeightL, double globalWeightU) {
-        if (this.fuzzyGlobalWeight == null) {
-            this.fuzzyGlobalWeight = new ArrayList<>(2);
-            for (int i = 0; i < 2; i++) {
-                this.fuzzyGlobalWeight.add(i, null);
-            }
-        }
-        this.fuzzyGlobalWeight.set(0, globalWeightL);
-        this.fuzzyGlobalWeight.set(1, globalWeightU);
+        this.fuzzyGlobalWeightL = globalWeightL;
+        this.fuzzyGlobalWeightU = globalWeightU;
     }
 }
@@ -0,0 +1,81 @@
+package benchmarks;
+
+import fuzzyGlobal.FuzzyDistributedSynthesis;
+import fuzzyGlobal.FuzzyGlobalWeightsAlg;
+import fuzzyGlobal.GreedyFuzzyDistributedSynthesis;
+import linearProgramming.SimplexSolver;
+import localMethods.RGMM;
+import org.ejml.simple.SimpleMatrix;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of fuzzy global weights algorithms for layer of n elements under n criteria,
+ * FDS uses native lp_solve, FDSJ uses SimplexSolver and FDSG is the greedy solution without LP.
+ * FDS is not run by default, it needs native lpsolve55 library in lpsolve.library.path: -p alg=FDS.
+ * FDSJ solves 2n models per operation, so default sizes are limited, larger ones are set explicitly,
+ * e.g. -p alg=FDSG -p n=200,1000
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class FuzzyGlobalWeightsBenchmark {
+    @Param({"FDSJ", "FDSG"})
+    public String alg;
+
+    @Param({"3", "7", "15", "50"})
+    public int n;
+
+    @Param({"consistent", "inconsistent"})
+    public String kind;
+
+    private FuzzyGlobalWeightsAlg fuzzyGlobalWeightsAlg;
+    private ArrayList<SimpleMatrix> weightsCriteria;
+    private ArrayList<SimpleMatrix> weightsElements;
+
+    @Setup
+    public void setUp() {
+        fuzzyGlobalWeightsAlg = create(alg);
+        MatrixGenerator generator = new MatrixGenerator(n);
+        SimpleMatrix criteria = (SimpleMatrix) new RGMM().computeLocal(generator.comparisons(n, kind)).get(0);
+        weightsCriteria = generator.interval(criteria);
+        weightsElements = generator.interval(generator.localLayer(n, n));
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (fuzzyGlobalWeightsAlg instanceof FuzzyDistributedSynthesis) {
+            ((FuzzyDistributedSynthesis) fuzzyGlobalWeightsAlg).close();
+        }
+    }
+
+    @Benchmark
+    public ArrayList<SimpleMatrix> computeFuzzyGlobal() {
+        return fuzzyGlobalWeightsAlg.computeFuzzyGlobal(weightsCriteria, weightsElements);
+    }
+
+    private static FuzzyGlobalWeightsAlg create(String name) {
+        switch (name) {
+            case "FDS": return new FuzzyDistributedSynthesis();
+            case "FDSJ": return new FuzzyDistributedSynthesis(SimplexSolver::new);
+            case "FDSG": return new GreedyFuzzyDistributedSynthesis();
+            default: throw new IllegalArgumentException("Unknown algorithm " + name);
+        }
+    }
+}
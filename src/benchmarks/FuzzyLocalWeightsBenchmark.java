@@ -0,0 +1,75 @@
+package benchmarks;
+
+import fuzzyLocal.FRGMM;
+import fuzzyLocal.FuzzyLocalWeightsAlg;
+import fuzzyLocal.GPM;
+import linearProgramming.SimplexSolver;
+import org.ejml.simple.SimpleMatrix;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of fuzzy local weights algorithms, GPM uses native lp_solve and GPMJ uses SimplexSolver.
+ * GPM is not run by default, it needs native lpsolve55 library in lpsolve.library.path: -p alg=GPM.
+ * Dense tableau of SimplexSolver limits default sizes, larger ones are set explicitly, e.g. -p n=200,1000
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class FuzzyLocalWeightsBenchmark {
+    @Param({"FRGMM", "GPMJ"})
+    public String alg;
+
+    @Param({"3", "7", "15", "50"})
+    public int n;
+
+    @Param({"consistent", "inconsistent"})
+    public String kind;
+
+    private FuzzyLocalWeightsAlg fuzzyLocalWeightsAlg;
+    private ArrayList<SimpleMatrix> fuzzyPairComparisons;
+
+    @Setup
+    public void setUp() {
+        fuzzyLocalWeightsAlg = create(alg);
+        MatrixGenerator generator = new MatrixGenerator(n);
+        fuzzyPairComparisons = generator.fuzzy(generator.comparisons(n, kind));
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (fuzzyLocalWeightsAlg instanceof GPM) {
+            ((GPM) fuzzyLocalWeightsAlg).close();
+        }
+    }
+
+    @Benchmark
+    public ArrayList<SimpleMatrix> computeFuzzyLocal() {
+        return fuzzyLocalWeightsAlg.computeFuzzyLocal(fuzzyPairComparisons);
+    }
+
+    private static FuzzyLocalWeightsAlg create(String name) {
+        switch (name) {
+            case "FRGMM": return new FRGMM();
+            case "GPM": return new GPM();
+            case "GPMJ": return new GPM(SimplexSolver::new);
+            default: throw new IllegalArgumentException("Unknown algorithm " + name);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package benchmarks;
+
+import globalMethods.DistributedSynthesis;
+import globalMethods.GlobalWeightsAlg;
+import globalMethods.MultiplicativeSynthesis;
+import localMethods.RGMM;
+import org.ejml.simple.SimpleMatrix;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of global weights algorithms for layer of n elements under n criteria,
+ * weights of criteria are computed by RGMM from matrix of the given kind
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class GlobalWeightsBenchmark {
+    @Param({"DS", "MS"})
+    public String alg;
+
+    @Param({"3", "7", "15", "50", "200", "1000"})
+    public int n;
+
+    @Param({"consistent", "inconsistent"})
+    public String kind;
+
+    private GlobalWeightsAlg globalWeightsAlg;
+    private SimpleMatrix weightsCriteria;
+    private SimpleMatrix weightsElements;
+
+    @Setup
+    public void setUp() {
+        globalWeightsAlg = create(alg);
+        MatrixGenerator generator = new MatrixGenerator(n);
+        weightsCriteria = (SimpleMatrix) new RGMM().computeLocal(generator.comparisons(n, kind)).get(0);
+        weightsElements = generator.localLayer(n, n);
+    }
+
+    @Benchmark
+    public SimpleMatrix computeGlobal() {
+        return globalWeightsAlg.computeGlobal(weightsCriteria, weightsElements);
+    }
+
+    private static GlobalWeightsAlg create(String name) {
+        switch (name) {
+            case "DS": return new DistributedSynthesis();
+            case "MS": return new MultiplicativeSynthesis();
+            default: throw new IllegalArgumentException("Unknown algorithm " + name);
+        }
+    }
+}
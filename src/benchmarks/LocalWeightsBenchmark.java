@@ -0,0 +1,65 @@
+package benchmarks;
+
+import localMethods.AN;
+import localMethods.EM;
+import localMethods.LocalWeightsAlg;
+import localMethods.RGMM;
+import org.ejml.simple.SimpleMatrix;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of local weights algorithms, run with -prof gc for allocation rate
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class LocalWeightsBenchmark {
+    @Param({"EM", "EMPI", "RGMM", "AN"})
+    public String alg;
+
+    @Param({"3", "7", "15", "50", "200", "1000"})
+    public int n;
+
+    @Param({"consistent", "inconsistent"})
+    public String kind;
+
+    private LocalWeightsAlg localWeightsAlg;
+    private SimpleMatrix pairComparisons;
+
+    @Setup
+    public void setUp() {
+        localWeightsAlg = create(alg);
+        pairComparisons = new MatrixGenerator(n).comparisons(n, kind);
+    }
+
+    @Benchmark
+    public ArrayList computeLocal() {
+        return localWeightsAlg.computeLocal(pairComparisons);
+    }
+
+    private static LocalWeightsAlg create(String name) {
+        switch (name) {
+            case "EM": return new EM();
+            case "EMPI": return new EM(EM.Seed.RGMM, 1e-12, 1000);
+            case "RGMM": return new RGMM();
+            case "AN": return new AN();
+            default: throw new IllegalArgumentException("Unknown algorithm " + name);
+        }
+    }
+}
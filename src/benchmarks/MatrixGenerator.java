@@ -0,0 +1,135 @@
+package benchmarks;
+
+import org.ejml.simple.SimpleMatrix;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+/**
+ * Class which generates pairwise comparison matrices for benchmarking
+ */
+public class MatrixGenerator {
+    private final Random random;
+
+    public MatrixGenerator(long seed) {
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Builds consistent matrix a_ij = w_i / w_j for random weights w
+     * @param n dimension of matrix
+     * @return positive reciprocal consistent matrix
+     */
+    public SimpleMatrix consistent(int n) {
+        double[] w = new double[n];
+        for (int i = 0; i < n; i++) {
+            w[i] = 1 + 8 * random.nextDouble();
+        }
+        SimpleMatrix matrix = new SimpleMatrix(n, n);
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                matrix.set(i, j, w[i] / w[j]);
+            }
+        }
+        return matrix;
+    }
+
+    /**
+     * Builds inconsistent matrix with upper triangle drawn from Saaty's scale {1/9, ..., 1, ..., 9}
+     * @param n dimension of matrix
+     * @return positive reciprocal matrix
+     */
+    public SimpleMatrix inconsistent(int n) {
+        SimpleMatrix matrix = new SimpleMatrix(n, n);
+        for (int i = 0; i < n; i++) {
+            matrix.set(i, i, 1);
+            for (int j = i + 1; j < n; j++) {
+                int scale = 1 + random.nextInt(9);
+                double value = random.nextBoolean() ? scale : 1. / scale;
+                matrix.set(i, j, value);
+                matrix.set(j, i, 1. / value);
+            }
+        }
+        return matrix;
+    }
+
+    /**
+     * Builds matrix of the given kind
+     * @param kind "consistent" or "inconsistent"
+     */
+    public SimpleMatrix comparisons(int n, String kind) {
+        switch (kind) {
+            case "consistent": return consistent(n);
+            case "inconsistent": return inconsistent(n);
+            default: throw new IllegalArgumentException("Unknown matrix kind " + kind);
+        }
+    }
+
+    /**
+     * Builds triangular fuzzy matrices {A_L, A_M, A_U} around the given crisp matrix
+     * @param crisp positive reciprocal matrix used as A_M
+     * @return ArrayList {A_L, A_M, A_U}
+     */
+    public ArrayList<SimpleMatrix> fuzzy(SimpleMatrix crisp) {
+        int n = crisp.numRows();
+        SimpleMatrix al = new SimpleMatrix(n, n);
+        SimpleMatrix au = new SimpleMatrix(n, n);
+        for (int i = 0; i < n; i++) {
+            al.set(i, i, 1);
+            au.set(i, i, 1);
+            for (int j = i + 1; j < n; j++) {
+                double spread = 1 + random.nextDouble();
+                al.set(i, j, crisp.get(i, j) / spread);
+                au.set(i, j, crisp.get(i, j) * spread);
+                al.set(j, i, 1. / au.get(i, j));
+                au.set(j, i, 1. / al.get(i, j));
+            }
+        }
+        ArrayList<SimpleMatrix> result = new ArrayList<>(3);
+        result.add(0, al);
+        result.add(1, crisp);
+        result.add(2, au);
+        return result;
+    }
+
+    /**
+     * Builds matrix of local weights: columns are random normalized vectors
+     * @param numElements number of rows (elements of the layer)
+     * @param numCriteria number of columns (criteria of the upper layer)
+     * @return matrix with column sums equal to 1
+     */
+    public SimpleMatrix localLayer(int numElements, int numCriteria) {
+        SimpleMatrix matrix = new SimpleMatrix(numElements, numCriteria);
+        for (int j = 0; j < numCriteria; j++) {
+            double sum = 0;
+            for (int i = 0; i < numElements; i++) {
+                double value = 0.05 + random.nextDouble();
+                matrix.set(i, j, value);
+                sum += value;
+            }
+            for (int i = 0; i < numElements; i++) {
+                matrix.set(i, j, matrix.get(i, j) / sum);
+            }
+        }
+        return matrix;
+    }
+
+    /**
+     * Builds interval bounds {W_L, W_U} around the given matrix of weights
+     * @param weights crisp weights
+     * @return ArrayList {W_L, W_U}
+     */
+    public ArrayList<SimpleMatrix> interval(SimpleMatrix weights) {
+        SimpleMatrix wl = new SimpleMatrix(weights.numRows(), weights.numCols());
+        SimpleMatrix wu = new SimpleMatrix(weights.numRows(), weights.numCols());
+        for (int i = 0; i < weights.getNumElements(); i++) {
+            double spread = 0.2 * random.nextDouble();
+            wl.set(i, weights.get(i) * (1 - spread));
+            wu.set(i, weights.get(i) * (1 + spread));
+        }
+        ArrayList<SimpleMatrix> result = new ArrayList<>(2);
+        result.add(0, wl);
+        result.add(1, wu);
+        return result;
+    }
+}
@@ -1,22 +1,59 @@
 package fuzzyGlobal;
 
-import lpsolve.LpSolve;
-import lpsolve.LpSolveException;
+import linearProgramming.LpSolveAdapter;
+import linearProgramming.LpSolver;
+import linearProgramming.LpSolverException;
 import org.ejml.simple.SimpleMatrix;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 /**
- * Class which implements Fuzzy distributed synthesis method for computing global weights
+ * Class which implements Fuzzy distributed synthesis method for computing global weights.
+ * Model is released after it is solved, close releases solvers of all threads.
  */
-public class FuzzyDistributedSynthesis implements FuzzyGlobalWeightsAlg {
-    private int[] colNum;
-    private double[] row;
-
+public class FuzzyDistributedSynthesis implements FuzzyGlobalWeightsAlg, AutoCloseable {
     private final int W_L = 0;
     private final int W_U = 1;
 
+    /**
+     * Solver of the current thread
+     */
+    private final ThreadLocal<LpSolver> solver;
+    /**
+     * Solvers of all threads
+     */
+    private final Set<LpSolver> solvers = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Fuzzy distributed synthesis solved by native lp_solve library
+     */
+    public FuzzyDistributedSynthesis() {
+        this(LpSolveAdapter::new);
+    }
+
+    /**
+     * Fuzzy distributed synthesis solved by given LP solver
+     * @param solverFactory creates one solver per thread, e.g. SimplexSolver::new
+     */
+    public FuzzyDistributedSynthesis(Supplier<LpSolver> solverFactory) {
+        this.solver = ThreadLocal.withInitial(() -> {
+            LpSolver lp = solverFactory.get();
+            solvers.add(lp);
+            return lp;
+        });
+    }
+
+    @Override
+    public void close() {
+        for (LpSolver lp : solvers) {
+            lp.close();
+        }
+    }
+
     @Override
     public String getName() {
         return "Fuzzy distributed synthesis";
@@ -28,6 +65,8 @@ public class FuzzyDistributedSynthesis implements FuzzyGlobalWeightsAlg {
      * @param weightsElements ArrayList {WE_L, WE_U}, where WE_L - matrix, which rows correspond to alternatives,
      *                        columns - corresponding criteria (lower bound)
      * @return {wGlob_L, wGlob_U}, where wGlob_L - global vector of alternative (lower bound)
+     * @throws IllegalArgumentException if LP is not solved, e.g. bounds of criteria weights do not contain
+     *                                  normalised weights
      */
     @Override
     public ArrayList<SimpleMatrix> computeFuzzyGlobal(ArrayList<SimpleMatrix> weightsCriteria,
@@ -57,36 +96,28 @@ public class FuzzyDistributedSynthesis implements FuzzyGlobalWeightsAlg {
          */
         final int numCriteria = weightsCriteria.get(W_L).numRows();
 
-        colNum = new int[numCriteria];
-        row = new double[numCriteria];
-        LpSolve lp;
+        final int[] colNum = new int[numCriteria];
+        final double[] row = new double[numCriteria];
+        LpSolver lp = solver.get();
 
         try {
-            lp = LpSolve.makeLp(0, numCriteria);
-            setLpConstraints(lp, weightsCriteria);
+            lp.reset(numCriteria);
+            setLpConstraints(lp, weightsCriteria, colNum, row);
 
             // Set objective function
-            lp.setAddRowmode(false);
-
-            clearArrays();
+            clearArrays(colNum, row);
             for (int i = 0; i < numCriteria; i++) {
-                setVariable(i, weightsElementL.get(i));
+                setVariable(colNum, row, i, weightsElementL.get(i));
             }
-            lp.setObjFnex(numCriteria, row, colNum);
-
-            lp.setMinim();
-            lp.writeLp("global-model-l.lp");
-            lp.solve();
-
-            lp.printLp();
-            double weightGlobal = lp.getObjective();
-            lp.deleteLp();
+            lp.setObjective(numCriteria, row, colNum, false);
 
-            return weightGlobal;
+            return lp.solve();
 
-        } catch (LpSolveException e) {
-            e.printStackTrace();
-            return -1;
+        } catch (LpSolverException e) {
+            // Constraints are bounds of criteria weights and their normalisation only
+            throw new IllegalArgumentException("Bounds of criteria weights do not contain normalised weights", e);
+        } finally {
+            lp.close();
         }
     }
 
@@ -96,81 +127,65 @@ public class FuzzyDistributedSynthesis implements FuzzyGlobalWeightsAlg {
          */
         final int numCriteria = weightsCriteria.get(W_U).numRows();
 
-        colNum = new int[numCriteria];
-        row = new double[numCriteria];
-        LpSolve lp;
+        final int[] colNum = new int[numCriteria];
+        final double[] row = new double[numCriteria];
+        LpSolver lp = solver.get();
 
         try {
-            lp = LpSolve.makeLp(0, numCriteria);
-            setLpConstraints(lp, weightsCriteria);
+            lp.reset(numCriteria);
+            setLpConstraints(lp, weightsCriteria, colNum, row);
 
             // Set objective function
-            lp.setAddRowmode(false);
-
-            clearArrays();
+            clearArrays(colNum, row);
             for (int i = 0; i < numCriteria; i++) {
-                setVariable(i, weightsElementU.get(i));
+                setVariable(colNum, row, i, weightsElementU.get(i));
             }
-            lp.setObjFnex(numCriteria, row, colNum);
-
-            lp.setMaxim();
-            lp.writeLp("global-model-u.lp");
-            lp.solve();
+            lp.setObjective(numCriteria, row, colNum, true);
 
-            double weightGlobal = lp.getObjective();
-            lp.deleteLp();
+            return lp.solve();
 
-            return weightGlobal;
-
-        } catch (LpSolveException e) {
-            e.printStackTrace();
-            return -1;
+        } catch (LpSolverException e) {
+            // Constraints are bounds of criteria weights and their normalisation only
+            throw new IllegalArgumentException("Bounds of criteria weights do not contain normalised weights", e);
+        } finally {
+            lp.close();
         }
     }
 
-    private void setLpConstraints(LpSolve lp, ArrayList<SimpleMatrix> weightsCriteria) {
+    private void setLpConstraints(LpSolver lp, ArrayList<SimpleMatrix> weightsCriteria, int[] colNum, double[] row) {
         final int numCriteria = weightsCriteria.get(W_L).numRows();
-        try {
-            // Set column names for variables
-            for (int i = 1; i <= numCriteria; i++) {
-                lp.setColName(i, "w_crit_" + i);
-            }
-
-            lp.setAddRowmode(true);
 
-            // Set constraint w_crit_i <= w_crit_U
-            for (int i = 0; i < numCriteria; i++) {
-                clearArrays();
-                setVariable(i, 1);
-                lp.addConstraintex(numCriteria, row, colNum, LpSolve.LE, weightsCriteria.get(W_U).get(i));
-            }
-
-            // Set constraint w_crit_i >= w_crit_L
-            for (int i = 0; i < numCriteria; i++) {
-                clearArrays();
-                setVariable(i, 1);
-                lp.addConstraintex(numCriteria, row, colNum, LpSolve.GE, weightsCriteria.get(W_L).get(i));
-            }
+        // Set constraint w_crit_i <= w_crit_U
+        for (int i = 0; i < numCriteria; i++) {
+            clearArrays(colNum, row);
+            setVariable(colNum, row, i, 1);
+            lp.addConstraint(numCriteria, row, colNum, LpSolver.LE, weightsCriteria.get(W_U).get(i));
+        }
 
-            // Set constraint sum_i=1^n(w_crit_i)=1
-            clearArrays();
-            for (int j = 0; j < numCriteria; j++) {
-                setVariable(j, 1);
-            }
-            lp.addConstraintex(numCriteria, row, colNum, LpSolve.EQ, 1);
+        // Set constraint w_crit_i >= w_crit_L
+        for (int i = 0; i < numCriteria; i++) {
+            clearArrays(colNum, row);
+            setVariable(colNum, row, i, 1);
+            lp.addConstraint(numCriteria, row, colNum, LpSolver.GE, weightsCriteria.get(W_L).get(i));
+        }
 
-        } catch (LpSolveException e) {
-            e.printStackTrace();
+        // Set constraint sum_i=1^n(w_crit_i)=1
+        clearArrays(colNum, row);
+        for (int j = 0; j < numCriteria; j++) {
+            setVariable(colNum, row, j, 1);
         }
+        lp.addConstraint(numCriteria, row, colNum, LpSolver.EQ, 1);
     }
 
-    private void setVariable(int index, double value) {
-        colNum[index] = index + 1;
+    private static void setVariable(int[] colNum, double[] row, int index, double value) {
+        colNum[index] = index;
         row[index] = value;
     }
 
-    private void clearArrays() {
-        Arrays.fill(colNum, 0);
+    private static void clearArrays(int[] colNum, double[] row) {
+        for (int i = 0; i < colNum.length; i++) {
+            colNum[i] = i;
+        }
         Arrays.fill(row, 0);
     }
 }
@@ -1,5 +1,6 @@
 package fuzzyGlobal;
 
+import localMethods.Workspace;
 import org.ejml.simple.SimpleMatrix;
 
 import java.util.ArrayList;
@@ -12,4 +13,44 @@ public interface FuzzyGlobalWeightsAlg {
      */
     public ArrayList<SimpleMatrix> computeFuzzyGlobal(ArrayList<SimpleMatrix> weightsCriteria,
                                                       ArrayList<SimpleMatrix> weightsElements);
+
+    /**
+     * Computes interval global weights by the given interval weights of criteria and elements {WE_L, WE_U}
+     */
+    public default IntervalVector computeFuzzyGlobal(IntervalVector weightsCriteria,
+                                                     ArrayList<SimpleMatrix> weightsElements) {
+        final int numElements = weightsElements.get(0).numRows();
+        double[][] elements = {weightsElements.get(0).getMatrix().getData(),
+                weightsElements.get(1).getMatrix().getData()};
+        IntervalVector weights = new IntervalVector(numElements);
+        computeFuzzyGlobal(weightsCriteria.getBounds(), weightsCriteria.getSize(), elements, numElements,
+                weights.getBounds(), Workspace.forCurrentThread());
+        return weights;
+    }
+
+    /**
+     * Computes fuzzy global weights into caller-supplied vectors. By default arrays are copied into
+     * SimpleMatrix, algorithms override this method to compute weights without allocations in steady state.
+     * @param weightsCriteria {WC_L, WC_U} vectors of numCriteria weights of criteria
+     * @param weightsElements {WE_L, WE_U} numElements x numCriteria matrices stored by rows
+     * @param fuzzyGlobal {w_L, w_U} output vectors of numElements weights
+     * @param workspace buffers of the calling thread
+     */
+    public default void computeFuzzyGlobal(double[][] weightsCriteria, int numCriteria, double[][] weightsElements,
+                                           int numElements, double[][] fuzzyGlobal, Workspace workspace) {
+        ArrayList<SimpleMatrix> criteria = new ArrayList<>(2);
+        ArrayList<SimpleMatrix> elements = new ArrayList<>(2);
+        for (int k = 0; k < 2; k++) {
+            SimpleMatrix criteriaBound = new SimpleMatrix(numCriteria, 1);
+            SimpleMatrix elementsBound = new SimpleMatrix(numElements, numCriteria);
+            System.arraycopy(weightsCriteria[k], 0, criteriaBound.getMatrix().getData(), 0, numCriteria);
+            System.arraycopy(weightsElements[k], 0, elementsBound.getMatrix().getData(), 0, numElements * numCriteria);
+            criteria.add(criteriaBound);
+            elements.add(elementsBound);
+        }
+        ArrayList<SimpleMatrix> weights = computeFuzzyGlobal(criteria, elements);
+        for (int k = 0; k < 2; k++) {
+            System.arraycopy(weights.get(k).getMatrix().getData(), 0, fuzzyGlobal[k], 0, numElements);
+        }
+    }
 }
@@ -0,0 +1,146 @@
+package fuzzyGlobal;
+
+import localMethods.Workspace;
+import org.ejml.simple.SimpleMatrix;
+
+import java.util.ArrayList;
+
+/**
+ * Class which implements Fuzzy distributed synthesis method for computing global weights without LP solver.
+ *
+ * For every alternative the bounds are min (max) of sum_j(we_j * wc_j) over criteria weights wc,
+ * such that WC_L <= wc <= WC_U and sum_j(wc_j) = 1. The optimum is found by greedy filling:
+ * all wc_j start at the lower bound and the remaining mass 1 - sum_j(WC_L_j) is given to criteria
+ * in order of increasing (decreasing) coefficient we_j, each up to its upper bound.
+ */
+public class GreedyFuzzyDistributedSynthesis implements FuzzyGlobalWeightsAlg {
+    private final int W_L = 0;
+    private final int W_U = 1;
+
+    /**
+     * Tolerance for checking that bounds of criteria weights contain weights with sum 1
+     */
+    private static final double EPS = 1e-9;
+
+    @Override
+    public String getName() {
+        return "Fuzzy distributed synthesis (greedy)";
+    }
+
+    /**
+     * Computes fuzzy global weights for given elements and criteria fuzzy weights
+     * @param weightsCriteria ArrayList {WC_L, WC_U}, where WC_L - vector of criteria weights (lower bound)
+     * @param weightsElements ArrayList {WE_L, WE_U}, where WE_L - matrix, which rows correspond to alternatives,
+     *                        columns - corresponding criteria (lower bound)
+     * @return {wGlob_L, wGlob_U}, where wGlob_L - global vector of alternative (lower bound)
+     */
+    @Override
+    public ArrayList<SimpleMatrix> computeFuzzyGlobal(ArrayList<SimpleMatrix> weightsCriteria,
+                                                      ArrayList<SimpleMatrix> weightsElements) {
+        final int numAlternatives = weightsElements.get(W_L).numRows();
+        final int numCriteria = weightsCriteria.get(W_L).getNumElements();
+
+        double[][] criteria = new double[2][];
+        double[][] elements = new double[2][];
+        double[][] global = new double[2][];
+        ArrayList<SimpleMatrix> weights = new ArrayList<>(2);
+        for (int k = W_L; k <= W_U; k++) {
+            SimpleMatrix weightsBound = new SimpleMatrix(numAlternatives, 1);
+            criteria[k] = weightsCriteria.get(k).getMatrix().getData();
+            elements[k] = weightsElements.get(k).getMatrix().getData();
+            global[k] = weightsBound.getMatrix().getData();
+            weights.add(k, weightsBound);
+        }
+        computeFuzzyGlobal(criteria, numCriteria, elements, numAlternatives, global, new Workspace());
+        return weights;
+    }
+
+    /**
+     * Computes fuzzy global weights into caller-supplied vectors, bounds of criteria and orders of coefficients
+     * are kept in workspace
+     */
+    @Override
+    public void computeFuzzyGlobal(double[][] weightsCriteria, int numCriteria, double[][] weightsElements,
+                                   int numElements, double[][] fuzzyGlobal, Workspace workspace) {
+        // Bounds of criteria weights are shared by all alternatives
+        double[] lower = workspace.getDoubles(0, numCriteria);
+        double[] range = workspace.getDoubles(1, numCriteria);
+        double sumLower = 0;
+        double sumUpper = 0;
+        for (int j = 0; j < numCriteria; j++) {
+            lower[j] = weightsCriteria[W_L][j];
+            range[j] = weightsCriteria[W_U][j] - lower[j];
+            sumLower += lower[j];
+            sumUpper += weightsCriteria[W_U][j];
+        }
+        if (sumLower > 1 + EPS || sumUpper < 1 - EPS) {
+            throw new IllegalArgumentException("Bounds of criteria weights do not contain normalised weights");
+        }
+        final double mass = Math.max(1 - sumLower, 0);
+
+        double[] elementsL = weightsElements[W_L];
+        double[] elementsU = weightsElements[W_U];
+
+        int[] order = workspace.getInts(0, numCriteria);
+        int[] buffer = workspace.getInts(1, numCriteria);
+
+        for (int i = 0; i < numElements; i++) {
+            int offset = i * numCriteria;
+
+            // Lower bound: remaining mass to the smallest coefficients first
+            sortIndices(elementsL, offset, numCriteria, order, buffer);
+            fuzzyGlobal[W_L][i] = fill(elementsL, offset, numCriteria, lower, range, mass, order, 0, 1);
+
+            // Upper bound: remaining mass to the largest coefficients first
+            sortIndices(elementsU, offset, numCriteria, order, buffer);
+            fuzzyGlobal[W_U][i] = fill(elementsU, offset, numCriteria, lower, range, mass, order, numCriteria - 1, -1);
+        }
+    }
+
+    /**
+     * Value of objective sum_j(c_j * wc_j) when criteria are filled up from the lower bounds in given order
+     */
+    private static double fill(double[] coefficients, int offset, int n, double[] lower, double[] range,
+                               double mass, int[] order, int start, int step) {
+        double value = 0;
+        for (int j = 0; j < n; j++) {
+            value += coefficients[offset + j] * lower[j];
+        }
+        for (int k = start; k >= 0 && k < n && mass > 0; k += step) {
+            int j = order[k];
+            double add = Math.min(range[j], mass);
+            value += coefficients[offset + j] * add;
+            mass -= add;
+        }
+        return value;
+    }
+
+    /**
+     * Sorts indices 0..n-1 by increasing keys[offset + index] (bottom-up merge sort)
+     */
+    private static void sortIndices(double[] keys, int offset, int n, int[] order, int[] buffer) {
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        int[] from = order;
+        int[] to = buffer;
+        for (int width = 1; width < n; width *= 2) {
+            for (int left = 0; left < n; left += 2 * width) {
+                int middle = Math.min(left + width, n);
+                int right = Math.min(left + 2 * width, n);
+                int i = left, j = middle, k = left;
+                while (i < middle && j < right) {
+                    to[k++] = keys[offset + from[j]] < keys[offset + from[i]] ? from[j++] : from[i++];
+                }
+                while (i < middle) to[k++] = from[i++];
+                while (j < right) to[k++] = from[j++];
+            }
+            int[] tmp = from;
+            from = to;
+            to = tmp;
+        }
+        if (from != order) {
+            System.arraycopy(from, 0, order, 0, n);
+        }
+    }
+}
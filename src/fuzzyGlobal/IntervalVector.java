@@ -0,0 +1,144 @@
+package fuzzyGlobal;
+
+import org.ejml.simple.SimpleMatrix;
+
+import java.util.ArrayList;
+
+/**
+ * Vector of intervals [l, u] stored in two primitive arrays of the same length: lower and upper bounds.
+ * Arithmetic operations are applied to all elements and return new vectors.
+ */
+public class IntervalVector {
+    public static final int W_L = 0;
+    public static final int W_U = 1;
+
+    /**
+     * {lower, upper} bounds
+     */
+    private final double[][] bounds;
+
+    /**
+     * Creates vector of n zero intervals
+     */
+    public IntervalVector(int n) {
+        this(new double[n], new double[n]);
+    }
+
+    /**
+     * Creates vector backed by given arrays, they are not copied
+     */
+    public IntervalVector(double[] lower, double[] upper) {
+        if (upper.length != lower.length) {
+            throw new IllegalArgumentException("Bounds have different dimensions");
+        }
+        this.bounds = new double[][]{lower, upper};
+    }
+
+    /**
+     * Copies vector from ArrayList {wL, wU}
+     */
+    public static IntervalVector fromSimpleMatrices(ArrayList<SimpleMatrix> fuzzyVector) {
+        return new IntervalVector(fuzzyVector.get(W_L).getMatrix().getData().clone(),
+                fuzzyVector.get(W_U).getMatrix().getData().clone());
+    }
+
+    /**
+     * Copies vector into ArrayList {wL, wU} of column vectors
+     */
+    public ArrayList<SimpleMatrix> toSimpleMatrices() {
+        ArrayList<SimpleMatrix> fuzzyVector = new ArrayList<>(2);
+        for (double[] bound : bounds) {
+            SimpleMatrix vector = new SimpleMatrix(bound.length, 1);
+            System.arraycopy(bound, 0, vector.getMatrix().getData(), 0, bound.length);
+            fuzzyVector.add(vector);
+        }
+        return fuzzyVector;
+    }
+
+    public int getSize() {
+        return bounds[W_L].length;
+    }
+
+    /**
+     * @param bound 0 - L, 1 - U
+     */
+    public double get(int bound, int i) {
+        return bounds[bound][i];
+    }
+
+    public void set(int bound, int i, double value) {
+        bounds[bound][i] = value;
+    }
+
+    public void set(int i, double lower, double upper) {
+        bounds[W_L][i] = lower;
+        bounds[W_U][i] = upper;
+    }
+
+    public double[] getLower() {
+        return bounds[W_L];
+    }
+
+    public double[] getUpper() {
+        return bounds[W_U];
+    }
+
+    /**
+     * Returns backing arrays {lower, upper}, e.g. for computing weights into vector
+     */
+    public double[][] getBounds() {
+        return bounds;
+    }
+
+    /**
+     * Element-wise sum: [l1 + l2, u1 + u2]
+     */
+    public IntervalVector plus(IntervalVector other) {
+        checkSize(other);
+        IntervalVector result = new IntervalVector(getSize());
+        for (int i = 0; i < getSize(); i++) {
+            result.set(i, bounds[W_L][i] + other.bounds[W_L][i], bounds[W_U][i] + other.bounds[W_U][i]);
+        }
+        return result;
+    }
+
+    /**
+     * Element-wise product of non-negative intervals: [l1 * l2, u1 * u2]
+     */
+    public IntervalVector elementMult(IntervalVector other) {
+        checkSize(other);
+        IntervalVector result = new IntervalVector(getSize());
+        for (int i = 0; i < getSize(); i++) {
+            result.set(i, bounds[W_L][i] * other.bounds[W_L][i], bounds[W_U][i] * other.bounds[W_U][i]);
+        }
+        return result;
+    }
+
+    /**
+     * Divides all intervals by positive number
+     */
+    public IntervalVector divide(double value) {
+        IntervalVector result = new IntervalVector(getSize());
+        for (int i = 0; i < getSize(); i++) {
+            result.set(i, bounds[W_L][i] / value, bounds[W_U][i] / value);
+        }
+        return result;
+    }
+
+    /**
+     * Widths u - l of all intervals
+     */
+    public double[] getWidths() {
+        double[] widths = new double[getSize()];
+        for (int i = 0; i < widths.length; i++) {
+            widths[i] = bounds[W_U][i] - bounds[W_L][i];
+        }
+        return widths;
+    }
+
+    private void checkSize(IntervalVector other) {
+        if (other.getSize() != getSize()) {
+            throw new IllegalArgumentException("Vectors have different dimensions");
+        }
+    }
+}
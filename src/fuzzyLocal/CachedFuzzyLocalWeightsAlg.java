@@ -0,0 +1,95 @@
+package fuzzyLocal;
+
+import localMethods.LocalWeightsCache;
+import org.ejml.simple.SimpleMatrix;
+
+import java.util.ArrayList;
+
+/**
+ * Fuzzy local weights algorithm, which serves repeated fuzzy matrices of pair comparisons from cache,
+ * e.g. to avoid repeated LP solving of GPM
+ */
+public class CachedFuzzyLocalWeightsAlg implements FuzzyLocalWeightsAlg {
+    private final FuzzyLocalWeightsAlg fuzzyLocalWeightsAlg;
+    private final LocalWeightsCache cache;
+    private final Object cacheId;
+
+    /**
+     * Cached weights are shared only with other wrappers of the same instance of algorithm
+     * @param fuzzyLocalWeightsAlg algorithm, which computes weights on cache miss
+     * @param cache cache, which can be shared between algorithms
+     */
+    public CachedFuzzyLocalWeightsAlg(FuzzyLocalWeightsAlg fuzzyLocalWeightsAlg, LocalWeightsCache cache) {
+        this(fuzzyLocalWeightsAlg, cache, fuzzyLocalWeightsAlg);
+    }
+
+    /**
+     * @param fuzzyLocalWeightsAlg algorithm, which computes weights on cache miss
+     * @param cache cache, which can be shared between algorithms
+     * @param cacheId id of configuration of algorithm, cached weights are shared with algorithms with equal ids.
+     *                By default it is the instance of algorithm
+     */
+    public CachedFuzzyLocalWeightsAlg(FuzzyLocalWeightsAlg fuzzyLocalWeightsAlg, LocalWeightsCache cache, Object cacheId) {
+        if (cacheId == null) throw new NullPointerException("Null id of algorithm in cache");
+        this.fuzzyLocalWeightsAlg = fuzzyLocalWeightsAlg;
+        this.cache = cache;
+        this.cacheId = cacheId;
+    }
+
+    @Override
+    public String getName() {
+        return fuzzyLocalWeightsAlg.getName();
+    }
+
+    @Override
+    public ArrayList<SimpleMatrix> computeFuzzyLocal(ArrayList<SimpleMatrix> fuzzyPairComparisons) {
+        double[][] matrices = new double[3][];
+        for (int k = 0; k < 3; k++) {
+            matrices[k] = fuzzyPairComparisons.get(k).getMatrix().getData();
+        }
+        double[][] values = cache.get(cacheId, fuzzyPairComparisons.get(0).numCols(), matrices,
+                () -> toValues(fuzzyLocalWeightsAlg.computeFuzzyLocal(fuzzyPairComparisons)));
+        return toResults(values);
+    }
+
+    /**
+     * Packed matrices are cached separately from dense ones
+     */
+    @Override
+    public ArrayList<SimpleMatrix> computeFuzzyLocal(FuzzyReciprocalMatrix fuzzyPairComparisons) {
+        double[][] matrices = new double[3][];
+        for (int k = 0; k < 3; k++) {
+            matrices[k] = fuzzyPairComparisons.getUpperTriangle(k);
+        }
+        double[][] values = cache.get(cacheId, -fuzzyPairComparisons.getSize(), matrices,
+                () -> toValues(fuzzyLocalWeightsAlg.computeFuzzyLocal(fuzzyPairComparisons)));
+        return toResults(values);
+    }
+
+    /**
+     * {wL, wM, wU}, null results of failed computations are not cached
+     */
+    private static double[][] toValues(ArrayList<SimpleMatrix> results) {
+        if (results == null) {
+            return null;
+        }
+        double[][] values = new double[3][];
+        for (int k = 0; k < 3; k++) {
+            values[k] = results.get(k).getMatrix().getData().clone();
+        }
+        return values;
+    }
+
+    private static ArrayList<SimpleMatrix> toResults(double[][] values) {
+        if (values == null) {
+            return null;
+        }
+        ArrayList<SimpleMatrix> results = new ArrayList<>(3);
+        for (int k = 0; k < 3; k++) {
+            SimpleMatrix weights = new SimpleMatrix(values[k].length, 1);
+            System.arraycopy(values[k], 0, weights.getMatrix().getData(), 0, values[k].length);
+            results.add(k, weights);
+        }
+        return results;
+    }
+}
@@ -1,5 +1,6 @@
 package fuzzyLocal;
 
+import localMethods.Workspace;
 import org.ejml.simple.SimpleMatrix;
 
 import java.util.ArrayList;
@@ -21,76 +22,52 @@ public class FRGMM implements FuzzyLocalWeightsAlg {
     public ArrayList<SimpleMatrix> computeFuzzyLocal(ArrayList<SimpleMatrix> fuzzyPairComparisons) {
         int numCols = fuzzyPairComparisons.get(W_L).numCols();
 
-        SimpleMatrix ones = new SimpleMatrix(numCols, 1);
-        ones.set(1);
-
-        ArrayList<SimpleMatrix> fuzzyLocal = createFuzzyVector(ones, ones, ones);
-
-        for (int i = 0; i < numCols; i++) {
-            ArrayList<SimpleMatrix> fuzzyColumn = createFuzzyVector(
-                    fuzzyPairComparisons.get(W_L).extractVector(false, i),
-                    fuzzyPairComparisons.get(W_M).extractVector(false, i),
-                    fuzzyPairComparisons.get(W_U).extractVector(false, i));
-
-            fuzzyLocal = fuzzyElementMult(fuzzyLocal, fuzzyColumn);
+        double[][] matrices = new double[3][];
+        double[][] weights = new double[3][];
+        ArrayList<SimpleMatrix> fuzzyLocal = new ArrayList<>(3);
+        for (int k = W_L; k <= W_U; k++) {
+            SimpleMatrix local = new SimpleMatrix(numCols, 1);
+            matrices[k] = fuzzyPairComparisons.get(k).getMatrix().getData();
+            weights[k] = local.getMatrix().getData();
+            fuzzyLocal.add(local);
         }
-
-        fuzzyLocal = fuzzyElementPower(fuzzyLocal, 1. / numCols);
-        fuzzyLocal = fuzzyDivideByNumber(fuzzyLocal, fuzzyElementSum(fuzzyLocal));
-
+        computeFuzzyLocal(matrices, numCols, weights, null);
         return fuzzyLocal;
     }
 
-    private ArrayList<SimpleMatrix> fuzzyElementMult(ArrayList<SimpleMatrix> fuzzyVector1,
-                                                     ArrayList<SimpleMatrix> fuzzyVector2) {
-
-        SimpleMatrix resultL = fuzzyVector1.get(W_L).elementMult(fuzzyVector2.get(W_L));
-        SimpleMatrix resultM = fuzzyVector1.get(W_M).elementMult(fuzzyVector2.get(W_M));
-        SimpleMatrix resultU = fuzzyVector1.get(W_U).elementMult(fuzzyVector2.get(W_U));
-
-        return createFuzzyVector(resultL, resultM, resultU);
-    }
-
-    private ArrayList<SimpleMatrix> fuzzyElementPower(ArrayList<SimpleMatrix> fuzzyVector, double power) {
-        SimpleMatrix resultL = fuzzyVector.get(W_L).elementPower(power);
-        SimpleMatrix resultM = fuzzyVector.get(W_M).elementPower(power);
-        SimpleMatrix resultU = fuzzyVector.get(W_U).elementPower(power);
-
-        return createFuzzyVector(resultL, resultM, resultU);
-    }
-
-    private ArrayList<Double> fuzzyElementSum(ArrayList<SimpleMatrix> fuzzyVector) {
-        Double resultL = fuzzyVector.get(W_L).elementSum();
-        Double resultM = fuzzyVector.get(W_M).elementSum();
-        Double resultU = fuzzyVector.get(W_U).elementSum();
-
-        return createFuzzyNumber(resultL, resultM, resultU);
-    }
-
-    private ArrayList<SimpleMatrix> fuzzyDivideByNumber(ArrayList<SimpleMatrix> fuzzyVector,
-                                                       ArrayList<Double> fuzzyNumber ) {
-        SimpleMatrix resultL = fuzzyVector.get(W_L).divide(fuzzyNumber.get(W_U));
-        SimpleMatrix resultM = fuzzyVector.get(W_M).divide(fuzzyNumber.get(W_M));
-        SimpleMatrix resultU = fuzzyVector.get(W_U).divide(fuzzyNumber.get(W_L));
-
-        return createFuzzyVector(resultL, resultM, resultU);
-    }
-
-    private ArrayList<SimpleMatrix> createFuzzyVector(SimpleMatrix vectorL, SimpleMatrix vectorM, SimpleMatrix vectorU) {
-        ArrayList<SimpleMatrix> result = new ArrayList<>(3);
-        result.add(vectorL);
-        result.add(vectorM);
-        result.add(vectorU);
-
-        return result;
+    /**
+     * Computes fuzzy weights as geometric means of rows of a_L, a_M, a_U, workspace is not used
+     */
+    @Override
+    public boolean computeFuzzyLocal(double[][] fuzzyPairComparisons, int n, double[][] fuzzyWeights,
+                                     Workspace workspace) {
+        final double sumL = rowGeometricMeans(fuzzyPairComparisons[W_L], n, fuzzyWeights[W_L]);
+        final double sumM = rowGeometricMeans(fuzzyPairComparisons[W_M], n, fuzzyWeights[W_M]);
+        final double sumU = rowGeometricMeans(fuzzyPairComparisons[W_U], n, fuzzyWeights[W_U]);
+
+        // Divide bounds by sums of opposite bounds
+        for (int i = 0; i < n; i++) {
+            fuzzyWeights[W_L][i] /= sumU;
+            fuzzyWeights[W_M][i] /= sumM;
+            fuzzyWeights[W_U][i] /= sumL;
+        }
+        return true;
     }
 
-    private ArrayList<Double> createFuzzyNumber(Double valueL, Double valueM, Double valueU) {
-        ArrayList<Double> result = new ArrayList<>(3);
-        result.add(valueL);
-        result.add(valueM);
-        result.add(valueU);
-
-        return result;
+    /**
+     * w_i = (prod_j(a_ij))^(1/n)
+     * @return sum of w_i
+     */
+    private static double rowGeometricMeans(double[] a, int n, double[] w) {
+        double sum = 0;
+        for (int i = 0; i < n; i++) {
+            double product = 1;
+            for (int j = 0; j < n; j++) {
+                product *= a[i * n + j];
+            }
+            w[i] = Math.pow(product, 1. / n);
+            sum += w[i];
+        }
+        return sum;
     }
-}
\ No newline at end of file
+}
@@ -1,5 +1,6 @@
 package fuzzyLocal;
 
+import localMethods.Workspace;
 import org.ejml.simple.SimpleMatrix;
 
 import java.util.ArrayList;
@@ -9,6 +10,65 @@ public interface FuzzyLocalWeightsAlg {
 
     /**
      * Computes fuzzy vector of weights {w_L, w_M, w_U} by the given matrices {a_L, a_M, a_U}
+     * @return weights or null if they could not be computed, e.g. LP was not solved
      */
     public ArrayList<SimpleMatrix> computeFuzzyLocal(ArrayList<SimpleMatrix> fuzzyPairComparisons);
+
+    /**
+     * Computes fuzzy vector of weights {w_L, w_M, w_U} by packed fuzzy reciprocal matrix.
+     * By default matrix is expanded to dense matrices.
+     */
+    public default ArrayList<SimpleMatrix> computeFuzzyLocal(FuzzyReciprocalMatrix fuzzyPairComparisons) {
+        return computeFuzzyLocal(fuzzyPairComparisons.toSimpleMatrices());
+    }
+
+    /**
+     * Computes fuzzy vector of weights by the given matrices {a_L, a_M, a_U}
+     * @return weights or null if they could not be computed
+     */
+    public default TriangularFuzzyVector computeFuzzyLocalVector(ArrayList<SimpleMatrix> fuzzyPairComparisons) {
+        final int n = fuzzyPairComparisons.get(0).numCols();
+        double[][] matrices = new double[3][];
+        for (int k = 0; k < 3; k++) {
+            matrices[k] = fuzzyPairComparisons.get(k).getMatrix().getData();
+        }
+        TriangularFuzzyVector weights = new TriangularFuzzyVector(n);
+        return computeFuzzyLocal(matrices, n, weights.getBounds(), Workspace.forCurrentThread()) ? weights : null;
+    }
+
+    /**
+     * Computes fuzzy vector of weights by packed fuzzy reciprocal matrix
+     * @return weights or null if they could not be computed
+     */
+    public default TriangularFuzzyVector computeFuzzyLocalVector(FuzzyReciprocalMatrix fuzzyPairComparisons) {
+        ArrayList<SimpleMatrix> weights = computeFuzzyLocal(fuzzyPairComparisons);
+        return weights == null ? null : TriangularFuzzyVector.fromSimpleMatrices(weights);
+    }
+
+    /**
+     * Computes fuzzy vector of weights into caller-supplied vectors. By default arrays are copied into
+     * SimpleMatrix, algorithms override this method to compute weights without allocations in steady state.
+     * @param fuzzyPairComparisons {a_L, a_M, a_U} n x n matrices stored by rows
+     * @param n dimension of matrices
+     * @param fuzzyWeights {w_L, w_M, w_U} output vectors of n weights
+     * @param workspace buffers of the calling thread
+     * @return false if weights could not be computed, e.g. LP was not solved
+     */
+    public default boolean computeFuzzyLocal(double[][] fuzzyPairComparisons, int n, double[][] fuzzyWeights,
+                                          Workspace workspace) {
+        ArrayList<SimpleMatrix> matrices = new ArrayList<>(3);
+        for (int k = 0; k < 3; k++) {
+            SimpleMatrix matrix = new SimpleMatrix(n, n);
+            System.arraycopy(fuzzyPairComparisons[k], 0, matrix.getMatrix().getData(), 0, n * n);
+            matrices.add(matrix);
+        }
+        ArrayList<SimpleMatrix> weights = computeFuzzyLocal(matrices);
+        if (weights == null) {
+            return false;
+        }
+        for (int k = 0; k < 3; k++) {
+            System.arraycopy(weights.get(k).getMatrix().getData(), 0, fuzzyWeights[k], 0, n);
+        }
+        return true;
+    }
 }
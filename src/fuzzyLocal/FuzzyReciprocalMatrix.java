@@ -0,0 +1,118 @@
+package fuzzyLocal;
+
+import localMethods.ReciprocalMatrix;
+import org.ejml.simple.SimpleMatrix;
+
+import java.util.ArrayList;
+
+/**
+ * Triangular fuzzy reciprocal matrix of pair comparisons {A_L, A_M, A_U}, which keeps only elements
+ * above diagonal. Elements below diagonal are a_ji = (1 / a_ij^U, 1 / a_ij^M, 1 / a_ij^L).
+ */
+public class FuzzyReciprocalMatrix {
+    private final int W_L = 0;
+    private final int W_M = 1;
+    private final int W_U = 2;
+
+    /**
+     * Elements above diagonal of L, M and U matrices, packed as in ReciprocalMatrix
+     */
+    private final ReciprocalMatrix[] bounds = new ReciprocalMatrix[3];
+
+    /**
+     * Creates matrix with all elements equal to (1, 1, 1)
+     * @param n dimension of matrix
+     */
+    public FuzzyReciprocalMatrix(int n) {
+        for (int k = 0; k < 3; k++) {
+            bounds[k] = new ReciprocalMatrix(n);
+        }
+    }
+
+    /**
+     * Creates matrix from elements above diagonal of dense matrices, elements below diagonal are ignored
+     * @param fuzzyPairComparisons {A_L, A_M, A_U}
+     */
+    public FuzzyReciprocalMatrix(ArrayList<SimpleMatrix> fuzzyPairComparisons) {
+        for (int k = 0; k < 3; k++) {
+            bounds[k] = new ReciprocalMatrix(fuzzyPairComparisons.get(k));
+        }
+        final int n = bounds[W_M].getSize();
+        if (bounds[W_L].getSize() != n || bounds[W_U].getSize() != n) {
+            throw new IndexOutOfBoundsException("Matrix has incorrect dimensions");
+        }
+    }
+
+    public int getSize() {
+        return bounds[W_M].getSize();
+    }
+
+    /**
+     * @param fuzzyIndex 0 - L, 1 - M, 2 - U
+     */
+    public double get(int fuzzyIndex, int i, int j) {
+        if (i > j) {
+            return 1 / bounds[2 - fuzzyIndex].get(j, i);
+        }
+        return bounds[fuzzyIndex].get(i, j);
+    }
+
+    /**
+     * Sets a_ij = (l, m, u), i != j, and a_ji = (1 / u, 1 / m, 1 / l)
+     */
+    public void set(int i, int j, double l, double m, double u) {
+        if (!(l <= m && m <= u)) {
+            throw new IllegalArgumentException("Fuzzy comparison should satisfy l <= m <= u");
+        }
+        if (i < j) {
+            bounds[W_L].set(i, j, l);
+            bounds[W_M].set(i, j, m);
+            bounds[W_U].set(i, j, u);
+        } else {
+            bounds[W_L].set(j, i, 1 / u);
+            bounds[W_M].set(j, i, 1 / m);
+            bounds[W_U].set(j, i, 1 / l);
+        }
+    }
+
+    /**
+     * Returns packed elements above diagonal of bound without copying
+     * @param fuzzyIndex 0 - L, 1 - M, 2 - U
+     */
+    public double[] getUpperTriangle(int fuzzyIndex) {
+        return bounds[fuzzyIndex].getUpperTriangle();
+    }
+
+    /**
+     * @param fuzzyIndex 0 - L, 1 - M, 2 - U
+     * @return new dense matrix of bound
+     */
+    public SimpleMatrix toSimpleMatrix(int fuzzyIndex) {
+        final int n = getSize();
+        SimpleMatrix matrix = new SimpleMatrix(n, n);
+        double[] a = matrix.getMatrix().getData();
+        double[] upper = bounds[fuzzyIndex].getUpperTriangle();
+        double[] lower = bounds[2 - fuzzyIndex].getUpperTriangle();
+        int k = 0;
+        for (int i = 0; i < n; i++) {
+            a[i * n + i] = 1;
+            for (int j = i + 1; j < n; j++) {
+                a[i * n + j] = upper[k];
+                a[j * n + i] = 1 / lower[k];
+                k++;
+            }
+        }
+        return matrix;
+    }
+
+    /**
+     * @return new dense matrices {A_L, A_M, A_U}
+     */
+    public ArrayList<SimpleMatrix> toSimpleMatrices() {
+        ArrayList<SimpleMatrix> matrices = new ArrayList<>(3);
+        matrices.add(W_L, toSimpleMatrix(W_L));
+        matrices.add(W_M, toSimpleMatrix(W_M));
+        matrices.add(W_U, toSimpleMatrix(W_U));
+        return matrices;
+    }
+}
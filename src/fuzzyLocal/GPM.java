@@ -1,18 +1,55 @@
 package fuzzyLocal;
 
-import lpsolve.LpSolve;
-import lpsolve.LpSolveException;
+import linearProgramming.LpSolveAdapter;
+import linearProgramming.LpSolver;
+import linearProgramming.LpSolverException;
+import linearProgramming.SparseRow;
 import org.ejml.simple.SimpleMatrix;
 
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 /**
- * Class which implements Goal Programming Model method for computing fuzzy local weights
+ * Class which implements Goal Programming Model method for computing fuzzy local weights.
+ * Model is released after it is solved, close releases solvers of all threads.
  */
-public class GPM implements FuzzyLocalWeightsAlg {
-    private int[] colNum;
-    private double[] row;
+public class GPM implements FuzzyLocalWeightsAlg, AutoCloseable {
+    /**
+     * Solver of the current thread
+     */
+    private final ThreadLocal<LpSolver> solver;
+    /**
+     * Solvers of all threads
+     */
+    private final Set<LpSolver> solvers = ConcurrentHashMap.newKeySet();
+
+    /**
+     * GPM solved by native lp_solve library
+     */
+    public GPM() {
+        this(LpSolveAdapter::new);
+    }
+
+    /**
+     * GPM solved by given LP solver
+     * @param solverFactory creates one solver per thread, e.g. SimplexSolver::new
+     */
+    public GPM(Supplier<LpSolver> solverFactory) {
+        this.solver = ThreadLocal.withInitial(() -> {
+            LpSolver lp = solverFactory.get();
+            solvers.add(lp);
+            return lp;
+        });
+    }
+
+    @Override
+    public void close() {
+        for (LpSolver lp : solvers) {
+            lp.close();
+        }
+    }
 
     @Override
     public String getName() {
@@ -30,9 +67,12 @@ public class GPM implements FuzzyLocalWeightsAlg {
          * Number of variables in the model
          */
         final int numCols = 8 * n;
-        colNum = new int[numCols];
-        row = new double[numCols];
-        LpSolve lp;
+        LpSolver lp = solver.get();
+
+        /**
+         * Nonzero coefficients of one row: at most n + 3 for constraints, 5n for objective function
+         */
+        SparseRow row = new SparseRow(5 * n);
 
         // Indices for problem variables
         final int EP_IDX = 0;     // Index shift for variable e+
@@ -44,191 +84,138 @@ public class GPM implements FuzzyLocalWeightsAlg {
         final int WM_IDX = 6 * n; // Index shift for variable wM
         final int WU_IDX = 7 * n; // Index shift for variable wU
 
+        // Model is released in finally also if it could not be built
+        double[] variables = new double[numCols];
         try {
-            lp = LpSolve.makeLp(0, numCols);
-
-            // Set column names for variables
-            for (int i = 1; i <= n; i++) {
-                lp.setColName(i + EP_IDX, "e+_" + i);
-                lp.setColName(i + EM_IDX, "e-_" + i);
-                lp.setColName(i + GP_IDX, "g+_" + i);
-                lp.setColName(i + GM_IDX, "g-_" + i);
-                lp.setColName(i + DT_IDX, "dt_" + i);
-                lp.setColName(i + WL_IDX, "wL_" + i);
-                lp.setColName(i + WM_IDX, "wM_" + i);
-                lp.setColName(i + WU_IDX, "wU_" + i);
-            }
-
-            lp.setAddRowmode(true);
+            // All variables are non-negative by default bounds of the solver
+            lp.reset(numCols);
 
             // Set constraint: E+ + E- = (AL-I)wU - (n-1)wL
             for (int i = 0; i < n; i++) {
-                // Reset values for columns and row
-                clearArrays();
-                setVariable(i + EP_IDX, 1); // Column for E+
-                setVariable(i + EM_IDX, 1); // Column for E-
-                setVariable(i + WL_IDX, n - 1); // Column for wL
+                row.clear()
+                        .add(i + EP_IDX, 1) // Column for E+
+                        .add(i + EM_IDX, 1) // Column for E-
+                        .add(i + WL_IDX, n - 1); // Column for wL
 
                 for (int j = 0; j < n; j++) { // Columns for wU
                     double c = fuzzyPairComparisons.get(0).get(i, j); // get aL
                     if (i == j) {
                         c -= 1;
                     }
-                    setVariable(WU_IDX + j, -c);
+                    row.add(WU_IDX + j, -c);
                 }
-                lp.addConstraintex(numCols, row, colNum, LpSolve.EQ, 0);
+                row.addConstraint(lp, LpSolver.EQ, 0);
             }
 
             // Set constraint: G+ + G- = (AU-I)wL - (n-1)wU
             for (int i = 0; i < n; i++) {
-                clearArrays();
-                setVariable(i + GP_IDX, 1); // Column for G+
-                setVariable(i + GM_IDX, 1); // Column for G-
-                setVariable(i + WU_IDX, n - 1); // Column for wU
+                row.clear()
+                        .add(i + GP_IDX, 1) // Column for G+
+                        .add(i + GM_IDX, 1) // Column for G-
+                        .add(i + WU_IDX, n - 1); // Column for wU
 
                 for (int j = 0; j < n; j++) { // Columns for wL
                     double c = fuzzyPairComparisons.get(2).get(i, j); // get aU
                     if (i == j) {
                         c -= 1;
                     }
-                    setVariable(WL_IDX + j, -c);
+                    row.add(WL_IDX + j, -c);
                 }
-                lp.addConstraintex(numCols, row, colNum, LpSolve.EQ, 0);
+                row.addConstraint(lp, LpSolver.EQ, 0);
             }
 
             // Set constraint D = (AM - nI)wM
             for (int i = 0; i < n; i++) {
-                clearArrays();
-                setVariable(i + DT_IDX, 1); // Column for d
+                row.clear().add(i + DT_IDX, 1); // Column for d
 
                 for (int j = 0; j < n; j++) { // Columns for wM
                     double c = fuzzyPairComparisons.get(1).get(i, j); // get aM
                     if (i == j) {
                         c -= n;
                     }
-                    setVariable(WM_IDX + j, -c);
+                    row.add(WM_IDX + j, -c);
                 }
-                lp.addConstraintex(numCols, row, colNum, LpSolve.EQ, 0);
+                row.addConstraint(lp, LpSolver.EQ, 0);
             }
 
             // Set constraint sum_j=1^n,i!=j(wU_j) + wL_i>=1, i=1:n
             for (int i = 0; i < n; i++) {
-                clearArrays();
-                setVariable(i + WL_IDX, 1); // Column for wL_i
+                row.clear().add(i + WL_IDX, 1); // Column for wL_i
 
                 for (int j = 0; j < n; j++) { // Columns for wU_j
                     if (i == j)
                         continue;
-                    setVariable(WU_IDX + j, 1);
+                    row.add(WU_IDX + j, 1);
                 }
-                lp.addConstraintex(numCols, row, colNum, LpSolve.GE, 1);
+                row.addConstraint(lp, LpSolver.GE, 1);
             }
 
             // Set constraint sum_j=1^n,i!=j(wL_j) + wU_i<=1, i=1:n
             for (int i = 0; i < n; i++) {
-                clearArrays();
-                setVariable(i + WU_IDX, 1); // Column for wU_i
+                row.clear().add(i + WU_IDX, 1); // Column for wU_i
 
                 for (int j = 0; j < n; j++) { // Columns for wL_j
                     if (i == j)
                         continue;
-                    setVariable(WL_IDX + j, 1);
+                    row.add(WL_IDX + j, 1);
                 }
-                lp.addConstraintex(numCols, row, colNum, LpSolve.LE, 1);
+                row.addConstraint(lp, LpSolver.LE, 1);
             }
 
             // Set constraint sum_i=1^n(wM_i)=1
-            clearArrays();
+            row.clear();
             for (int j = 0; j < n; j++) {
-                setVariable(WM_IDX + j, 1);
+                row.add(WM_IDX + j, 1);
             }
-            lp.addConstraintex(numCols, row, colNum, LpSolve.EQ, 1);
+            row.addConstraint(lp, LpSolver.EQ, 1);
 
             // Set constraint wU - wM >= 0
             for (int i = 0; i < n; i++) {
-                clearArrays();
-                setVariable(i + WU_IDX, 1); // Column for wU_i
-                setVariable(i + WM_IDX, -1); // Column for wM_i
-                lp.addConstraintex(numCols, row, colNum, LpSolve.GE, 0);
+                row.clear()
+                        .add(i + WU_IDX, 1) // Column for wU_i
+                        .add(i + WM_IDX, -1); // Column for wM_i
+                row.addConstraint(lp, LpSolver.GE, 0);
             }
 
             // Set constraint wM - wL >= 0
             for (int i = 0; i < n; i++) {
-                clearArrays();
-                setVariable(i + WM_IDX, 1); // Column for wM_i
-                setVariable(i + WL_IDX, -1); // Column for wL_i
-                lp.addConstraintex(numCols, row, colNum, LpSolve.GE, 0);
+                row.clear()
+                        .add(i + WM_IDX, 1) // Column for wM_i
+                        .add(i + WL_IDX, -1); // Column for wL_i
+                row.addConstraint(lp, LpSolver.GE, 0);
             }
 
-            // Set constraints >= 0 for:
-            // e+ >= 0
-            // e- >= 0
-            // g+ >= 0
-            // g- >= 0
-            // dt >= 0
-            // wL >= 0
-            for (int i = 0; i < WM_IDX; i++) {
-                clearArrays();
-                setVariable(i, 1);
-                lp.addConstraintex(numCols, row, colNum, LpSolve.GE, 0);
-            }
-
-            // Set objective function
-            lp.setAddRowmode(false);
-
-            clearArrays();
+            // Set objective function: sum of deviations e+, e-, g+, g-, delta
+            row.clear();
             for (int i = 0; i < WL_IDX; i++) {
-                setVariable(i, 1);
+                row.add(i, 1);
             }
-            lp.setObjFnex(5 * n, row, colNum);
-
-            lp.setMinim();
-
-            lp.writeLp("model.lp");
-            lp.setVerbose(LpSolve.IMPORTANT);
+            row.setObjective(lp, false);
 
             lp.solve();
+            lp.getVariables(variables);
+        } catch (LpSolverException e) {
+            // LP was not solved, e.g. model is infeasible
+            return null;
+        } finally {
+            lp.close();
+        }
 
-            lp.printLp();
-
-            /* objective value */
-            System.out.println("Objective value: " + lp.getObjective());
-            /* variable values */
-            lp.getVariables(row);
-            for(int j = 0; j < numCols; j++)
-                System.out.println(lp.getColName(j + 1) + ": " + row[j]);
-
-            lp.deleteLp();
-
-            SimpleMatrix wl = new SimpleMatrix(n, 1);
-            SimpleMatrix wm = new SimpleMatrix(n, 1);
-            SimpleMatrix wu = new SimpleMatrix(n, 1);
-
-            for (int i = 0; i < n; i++) {
-                wl.set(i, row[i + WL_IDX]);
-                wm.set(i, row[i + WM_IDX]);
-                wu.set(i, row[i + WU_IDX]);
-            }
-
-            ArrayList<SimpleMatrix> weights = new ArrayList<>(3);
-            weights.add(0, wl);
-            weights.add(1, wm);
-            weights.add(2, wu);
+        SimpleMatrix wl = new SimpleMatrix(n, 1);
+        SimpleMatrix wm = new SimpleMatrix(n, 1);
+        SimpleMatrix wu = new SimpleMatrix(n, 1);
 
-            return weights;
-        } catch (LpSolveException e) {
-            e.printStackTrace();
-            return null;
+        for (int i = 0; i < n; i++) {
+            wl.set(i, variables[i + WL_IDX]);
+            wm.set(i, variables[i + WM_IDX]);
+            wu.set(i, variables[i + WU_IDX]);
         }
-    }
 
-    private void setVariable(int index, double value) {
-        colNum[index] = index + 1;
-        row[index] = value;
-    }
+        ArrayList<SimpleMatrix> weights = new ArrayList<>(3);
+        weights.add(0, wl);
+        weights.add(1, wm);
+        weights.add(2, wu);
 
-    private void clearArrays() {
-        Arrays.fill(colNum, 0);
-        Arrays.fill(row, 0);
+        return weights;
     }
 }
@@ -0,0 +1,162 @@
+package fuzzyLocal;
+
+import org.ejml.simple.SimpleMatrix;
+
+import java.util.ArrayList;
+
+/**
+ * Vector of triangular fuzzy numbers (l, m, u) stored in three primitive arrays of the same length:
+ * lower, middle and upper bounds. Arithmetic operations are applied to all elements and return new vectors.
+ */
+public class TriangularFuzzyVector {
+    public static final int W_L = 0;
+    public static final int W_M = 1;
+    public static final int W_U = 2;
+
+    /**
+     * {lower, middle, upper} bounds
+     */
+    private final double[][] bounds;
+
+    /**
+     * Creates vector of n zero numbers
+     */
+    public TriangularFuzzyVector(int n) {
+        this(new double[n], new double[n], new double[n]);
+    }
+
+    /**
+     * Creates vector backed by given arrays, they are not copied
+     */
+    public TriangularFuzzyVector(double[] lower, double[] middle, double[] upper) {
+        if (middle.length != lower.length || upper.length != lower.length) {
+            throw new IllegalArgumentException("Bounds have different dimensions");
+        }
+        this.bounds = new double[][]{lower, middle, upper};
+    }
+
+    /**
+     * Copies vector from ArrayList {wL, wM, wU}
+     */
+    public static TriangularFuzzyVector fromSimpleMatrices(ArrayList<SimpleMatrix> fuzzyVector) {
+        return new TriangularFuzzyVector(fuzzyVector.get(W_L).getMatrix().getData().clone(),
+                fuzzyVector.get(W_M).getMatrix().getData().clone(),
+                fuzzyVector.get(W_U).getMatrix().getData().clone());
+    }
+
+    /**
+     * Copies vector into ArrayList {wL, wM, wU} of column vectors
+     */
+    public ArrayList<SimpleMatrix> toSimpleMatrices() {
+        ArrayList<SimpleMatrix> fuzzyVector = new ArrayList<>(3);
+        for (double[] bound : bounds) {
+            SimpleMatrix vector = new SimpleMatrix(bound.length, 1);
+            System.arraycopy(bound, 0, vector.getMatrix().getData(), 0, bound.length);
+            fuzzyVector.add(vector);
+        }
+        return fuzzyVector;
+    }
+
+    public int getSize() {
+        return bounds[W_L].length;
+    }
+
+    /**
+     * @param fuzzyIndex 0 - L, 1 - M, 2 - U
+     */
+    public double get(int fuzzyIndex, int i) {
+        return bounds[fuzzyIndex][i];
+    }
+
+    public void set(int fuzzyIndex, int i, double value) {
+        bounds[fuzzyIndex][i] = value;
+    }
+
+    public void set(int i, double lower, double middle, double upper) {
+        bounds[W_L][i] = lower;
+        bounds[W_M][i] = middle;
+        bounds[W_U][i] = upper;
+    }
+
+    public double[] getLower() {
+        return bounds[W_L];
+    }
+
+    public double[] getMiddle() {
+        return bounds[W_M];
+    }
+
+    public double[] getUpper() {
+        return bounds[W_U];
+    }
+
+    /**
+     * Returns backing arrays {lower, middle, upper}, e.g. for computing weights into vector
+     */
+    public double[][] getBounds() {
+        return bounds;
+    }
+
+    /**
+     * Element-wise product of positive fuzzy numbers: (l1 * l2, m1 * m2, u1 * u2)
+     */
+    public TriangularFuzzyVector elementMult(TriangularFuzzyVector other) {
+        checkSize(other);
+        TriangularFuzzyVector result = new TriangularFuzzyVector(getSize());
+        for (int k = W_L; k <= W_U; k++) {
+            for (int i = 0; i < getSize(); i++) {
+                result.bounds[k][i] = bounds[k][i] * other.bounds[k][i];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Element-wise power of positive fuzzy numbers with positive exponent: (l^p, m^p, u^p)
+     */
+    public TriangularFuzzyVector elementPower(double power) {
+        TriangularFuzzyVector result = new TriangularFuzzyVector(getSize());
+        for (int k = W_L; k <= W_U; k++) {
+            for (int i = 0; i < getSize(); i++) {
+                result.bounds[k][i] = Math.pow(bounds[k][i], power);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Sum of elements of one bound
+     * @param fuzzyIndex 0 - L, 1 - M, 2 - U
+     */
+    public double elementSum(int fuzzyIndex) {
+        double sum = 0;
+        for (double value : bounds[fuzzyIndex]) {
+            sum += value;
+        }
+        return sum;
+    }
+
+    /**
+     * Divides all elements by positive fuzzy number (l, m, u): (l_i / u, m_i / m, u_i / l)
+     */
+    public TriangularFuzzyVector divide(double lower, double middle, double upper) {
+        TriangularFuzzyVector result = new TriangularFuzzyVector(getSize());
+        for (int i = 0; i < getSize(); i++) {
+            result.set(i, bounds[W_L][i] / upper, bounds[W_M][i] / middle, bounds[W_U][i] / lower);
+        }
+        return result;
+    }
+
+    /**
+     * Divides all elements by fuzzy sum of elements
+     */
+    public TriangularFuzzyVector normalise() {
+        return divide(elementSum(W_L), elementSum(W_M), elementSum(W_U));
+    }
+
+    private void checkSize(TriangularFuzzyVector other) {
+        if (other.getSize() != getSize()) {
+            throw new IllegalArgumentException("Vectors have different dimensions");
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package fuzzyRanging;
+
+/**
+ * Sorts indices of primitive array by its values, same order as Arrays.sort with ArrayIndexComparator
+ */
+public class ArrayIndexSorter {
+    private ArrayIndexSorter() {
+    }
+
+    /**
+     * Returns indices of vector in order of decreasing values (by Double.compare), equal values keep order of indices
+     */
+    public static int[] sortDescending(double[] vector) {
+        final int n = vector.length;
+        int[] from = new int[n];
+        int[] to = new int[n];
+        for (int i = 0; i < n; i++) {
+            from[i] = i;
+        }
+        // Bottom-up stable merge sort
+        for (int width = 1; width < n; width *= 2) {
+            for (int left = 0; left < n; left += 2 * width) {
+                int middle = Math.min(left + width, n);
+                int right = Math.min(left + 2 * width, n);
+                int i = left, j = middle, k = left;
+                while (i < middle && j < right) {
+                    to[k++] = Double.compare(vector[from[j]], vector[from[i]]) > 0 ? from[j++] : from[i++];
+                }
+                while (i < middle) to[k++] = from[i++];
+                while (j < right) to[k++] = from[j++];
+            }
+            int[] tmp = from;
+            from = to;
+            to = tmp;
+        }
+        return from;
+    }
+}
@@ -1,9 +1,10 @@
 package fuzzyRanging;
 
+import fuzzyGlobal.IntervalVector;
 import org.ejml.simple.SimpleMatrix;
 
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.stream.IntStream;
 
 import static java.lang.Math.max;
 
@@ -14,6 +15,11 @@ public class DegreeOfPreference implements FuzzyRangingAlg {
     private final int W_L = 0;
     private final int W_U = 1;
 
+    /**
+     * Minimal number of elements for which rows of preferences are computed in parallel
+     */
+    private static final int PARALLEL_THRESHOLD = 512;
+
     @Override
     public String getName() {
         return "Degree of preference method";
@@ -21,49 +27,229 @@ public class DegreeOfPreference implements FuzzyRangingAlg {
 
     @Override
     public ArrayList<Integer> fuzzyRanging(ArrayList<SimpleMatrix> fuzzyVector) {
+        int[] ranging = fuzzyRanging(fuzzyVector.get(W_L).getMatrix().getData(),
+                                     fuzzyVector.get(W_U).getMatrix().getData());
+
+        ArrayList<Integer> result = new ArrayList<>(ranging.length);
+        for (int index : ranging) {
+            result.add(index);
+        }
+        return result;
+    }
+
+    @Override
+    public int[] fuzzyRanging(IntervalVector fuzzyVector) {
+        return fuzzyRanging(fuzzyVector.getLower(), fuzzyVector.getUpper());
+    }
+
+    /**
+     * Ranges interval weights by sums of degrees of preference and returns only k the most preferred elements
+     */
+    public int[] fuzzyRanging(IntervalVector fuzzyVector, int k) {
+        return fuzzyRanging(fuzzyVector.getLower(), fuzzyVector.getUpper(), k);
+    }
+
+    /**
+     * Ranges interval weights by sums of degrees of preference
+     * @param lower lower bounds of weights
+     * @param upper upper bounds of weights
+     * @return indices of elements from the most to the least preferred
+     */
+    public int[] fuzzyRanging(double[] lower, double[] upper) {
+        return ArrayIndexSorter.sortDescending(computePreferencesSums(lower, upper));
+    }
+
+    /**
+     * Ranges interval weights by sums of degrees of preference and returns only k the most preferred elements.
+     * Result is the same as first k elements of full ranging.
+     * @param fuzzyVector ArrayList {W_L, W_U}
+     * @param k number of elements to return
+     * @return indices of k the most preferred elements
+     */
+    public ArrayList<Integer> fuzzyRanging(ArrayList<SimpleMatrix> fuzzyVector, int k) {
+        int[] ranging = fuzzyRanging(fuzzyVector.get(W_L).getMatrix().getData(),
+                                     fuzzyVector.get(W_U).getMatrix().getData(), k);
 
-        SimpleMatrix prefMatrix = computePreferencesMatrix(fuzzyVector);
-        SimpleMatrix prefSumVector = computePreferencesSumVector(prefMatrix);
-        return findRangingByWeights(prefSumVector);
+        ArrayList<Integer> result = new ArrayList<>(ranging.length);
+        for (int index : ranging) {
+            result.add(index);
+        }
+        return result;
     }
 
-    private SimpleMatrix computePreferencesMatrix(ArrayList<SimpleMatrix> fuzzyVector) {
-        final int numElements = fuzzyVector.get(W_L).getNumElements();
-        SimpleMatrix preferenceMatrix = new SimpleMatrix(numElements, numElements);
+    /**
+     * Ranges interval weights by sums of degrees of preference and returns only k the most preferred elements.
+     *
+     * Element i, which upper bound is below the k-th largest lower bound, is dominated by at least k elements:
+     * for each such element m p_mi = 1, p_im = 0 and p_mj >= p_ij for any other j, so its sum of preferences
+     * is greater at least by 1. Such elements are discarded and sums are computed only for the rest.
+     * @param lower lower bounds of weights
+     * @param upper upper bounds of weights
+     * @param k number of elements to return
+     * @return indices of k the most preferred elements, the same as first k elements of full ranging
+     */
+    public int[] fuzzyRanging(double[] lower, double[] upper, int k) {
+        final int numElements = lower.length;
+        if (upper.length != numElements) {
+            throw new IllegalArgumentException("Bounds have different dimensions");
+        }
+        if (k <= 0) throw new IllegalArgumentException("Number of elements should be greater than zero");
+        k = Math.min(k, numElements);
+
+        // Degrees of preference between two intervals of zero width are undefined (NaN), which breaks dominance
+        int numPoints = 0;
         for (int i = 0; i < numElements; i++) {
-            for (int j = 0; j < numElements; j++) {
-                if (i == j) {
-                    preferenceMatrix.set(i, j, 0.5);
-                } else {
-                    ArrayList<Double> weight1 = getFuzzyNumber(fuzzyVector, i);
-                    ArrayList<Double> weight2 = getFuzzyNumber(fuzzyVector, j);
-
-                    preferenceMatrix.set(i, j, degreeOfPreference(weight1, weight2));
-                }
+            if (upper[i] == lower[i]) {
+                numPoints++;
             }
         }
-        return preferenceMatrix;
+        final double threshold = numPoints > 1 ? Double.NEGATIVE_INFINITY : kthLargest(lower, k);
+
+        int[] candidates = new int[numElements];
+        int numCandidates = 0;
+        for (int i = 0; i < numElements; i++) {
+            if (!(upper[i] < threshold)) {
+                candidates[numCandidates++] = i;
+            }
+        }
+
+        double[] sums = new double[numElements];
+        IntStream rows = IntStream.range(0, numCandidates);
+        if ((long) numCandidates * numElements >= (long) PARALLEL_THRESHOLD * PARALLEL_THRESHOLD) {
+            rows = rows.parallel();
+        }
+        rows.forEach(c -> sums[candidates[c]] = computePreferencesSum(lower, upper, candidates[c]));
+
+        // Keep k best candidates in heap, which root is the worst of them
+        int[] heap = new int[k];
+        int size = 0;
+        for (int c = 0; c < numCandidates; c++) {
+            int i = candidates[c];
+            if (size < k) {
+                heap[size] = i;
+                siftUp(heap, size++, sums);
+            } else if (isWorse(heap[0], i, sums)) {
+                heap[0] = i;
+                siftDown(heap, size, sums);
+            }
+        }
+
+        // Extract from the worst to the best
+        int[] result = new int[size];
+        for (int r = size - 1; r >= 0; r--) {
+            result[r] = heap[0];
+            heap[0] = heap[--size];
+            siftDown(heap, size, sums);
+        }
+        return result;
+    }
+
+    /**
+     * Element a goes after element b in ranging: smaller sum or equal sum and greater index
+     */
+    private static boolean isWorse(int a, int b, double[] sums) {
+        int compare = Double.compare(sums[a], sums[b]);
+        return compare < 0 || (compare == 0 && a > b);
     }
 
-    private SimpleMatrix computePreferencesSumVector(SimpleMatrix prefMatrix) {
-        SimpleMatrix preferences = new SimpleMatrix(prefMatrix.numRows(), 1);
-        preferences.set(0);
-        for (int j = 0; j < prefMatrix.numCols(); j++) {
-            preferences = preferences.plus(prefMatrix.extractVector(false, j));
+    private static void siftUp(int[] heap, int position, double[] sums) {
+        while (position > 0) {
+            int parent = (position - 1) / 2;
+            if (!isWorse(heap[position], heap[parent], sums)) {
+                break;
+            }
+            int tmp = heap[parent];
+            heap[parent] = heap[position];
+            heap[position] = tmp;
+            position = parent;
         }
-        return  preferences;
     }
 
-    private ArrayList<Integer> findRangingByWeights(SimpleMatrix prefSumVector) {
-        ArrayIndexComparator comparator = new ArrayIndexComparator(prefSumVector);
-        Integer[] indexes = comparator.createIndexArray();
-        Arrays.sort(indexes, comparator);
+    private static void siftDown(int[] heap, int size, double[] sums) {
+        int position = 0;
+        while (true) {
+            int child = 2 * position + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && isWorse(heap[child + 1], heap[child], sums)) {
+                child++;
+            }
+            if (!isWorse(heap[child], heap[position], sums)) {
+                break;
+            }
+            int tmp = heap[child];
+            heap[child] = heap[position];
+            heap[position] = tmp;
+            position = child;
+        }
+    }
 
-        ArrayList<Integer> result = new ArrayList<>();
-        for (int i = 0; i < prefSumVector.numRows(); i++) {
-            result.add(i, indexes[i]);
+    /**
+     * Returns k-th largest value of vector using min-heap of size k
+     */
+    private static double kthLargest(double[] vector, int k) {
+        double[] heap = new double[k];
+        int size = 0;
+        for (double value : vector) {
+            if (size < k) {
+                int position = size++;
+                heap[position] = value;
+                while (position > 0 && heap[(position - 1) / 2] > heap[position]) {
+                    int parent = (position - 1) / 2;
+                    double tmp = heap[parent];
+                    heap[parent] = heap[position];
+                    heap[position] = tmp;
+                    position = parent;
+                }
+            } else if (value > heap[0]) {
+                heap[0] = value;
+                int position = 0;
+                while (true) {
+                    int child = 2 * position + 1;
+                    if (child >= size) break;
+                    if (child + 1 < size && heap[child + 1] < heap[child]) child++;
+                    if (heap[child] >= heap[position]) break;
+                    double tmp = heap[child];
+                    heap[child] = heap[position];
+                    heap[position] = tmp;
+                    position = child;
+                }
+            }
         }
-        return result;
+        return heap[0];
+    }
+
+    /**
+     * Computes sum_j(p_ij) for every element i, where p_ij - degree of preference of i-th weight over j-th,
+     * p_ii = 0.5. Matrix of preferences is not stored, rows are computed in parallel for large vectors.
+     * @param lower lower bounds of weights
+     * @param upper upper bounds of weights
+     * @return vector of sums of degrees of preference
+     */
+    public double[] computePreferencesSums(double[] lower, double[] upper) {
+        final int numElements = lower.length;
+        if (upper.length != numElements) {
+            throw new IllegalArgumentException("Bounds have different dimensions");
+        }
+        double[] sums = new double[numElements];
+        IntStream rows = IntStream.range(0, numElements);
+        if (numElements >= PARALLEL_THRESHOLD) {
+            rows = rows.parallel();
+        }
+        rows.forEach(i -> sums[i] = computePreferencesSum(lower, upper, i));
+        return sums;
+    }
+
+    /**
+     * Sum of degrees of preference of i-th weight over all weights
+     */
+    static double computePreferencesSum(double[] lower, double[] upper, int i) {
+        double sum = 0;
+        for (int j = 0; j < lower.length; j++) {
+            sum += i == j ? 0.5 : degreeOfPreference(lower[i], upper[i], lower[j], upper[j]);
+        }
+        return sum;
     }
 
     /**
@@ -73,17 +259,30 @@ public class DegreeOfPreference implements FuzzyRangingAlg {
      * @return degree of preference value
      */
     public double degreeOfPreference(ArrayList<Double> fuzzyNumber1, ArrayList<Double> fuzzyNumber2) {
-        double fuzzyNumber1L = fuzzyNumber1.get(W_L);
-        double fuzzyNumber1U = fuzzyNumber1.get(W_U);
-        double fuzzyNumber2L = fuzzyNumber2.get(W_L);
-        double fuzzyNumber2U = fuzzyNumber2.get(W_U);
+        return degreeOfPreference(fuzzyNumber1.get(W_L), fuzzyNumber1.get(W_U),
+                                  fuzzyNumber2.get(W_L), fuzzyNumber2.get(W_U));
+    }
 
+    /**
+     * Calculates degree of preference of interval [v1_L, v1_U] over the interval [v2_L, v2_U]
+     * @return degree of preference value
+     */
+    public static double degreeOfPreference(double fuzzyNumber1L, double fuzzyNumber1U,
+                                            double fuzzyNumber2L, double fuzzyNumber2U) {
         double value = (fuzzyNumber2U - fuzzyNumber1L) /
                 ((fuzzyNumber1U - fuzzyNumber1L) + (fuzzyNumber2U - fuzzyNumber2L));
 
         return max(1 - max(value, 0), 0);
     }
 
+    /**
+     * Calculates degree of preference of i-th interval of vector over the j-th one
+     */
+    public double degreeOfPreference(IntervalVector fuzzyVector, int i, int j) {
+        return degreeOfPreference(fuzzyVector.get(W_L, i), fuzzyVector.get(W_U, i),
+                                  fuzzyVector.get(W_L, j), fuzzyVector.get(W_U, j));
+    }
+
     public ArrayList<Double> getFuzzyNumber(ArrayList<SimpleMatrix> fuzzyVector, int i) {
         ArrayList<Double> result = new ArrayList<>(2);
         result.add(W_L, fuzzyVector.get(W_L).get(i));
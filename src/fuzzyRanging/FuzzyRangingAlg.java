@@ -1,5 +1,6 @@
 package fuzzyRanging;
 
+import fuzzyGlobal.IntervalVector;
 import org.ejml.simple.SimpleMatrix;
 
 import java.util.ArrayList;
@@ -7,4 +8,17 @@ import java.util.ArrayList;
 public interface FuzzyRangingAlg {
     String getName();
     public ArrayList<Integer> fuzzyRanging(ArrayList<SimpleMatrix> fuzzyVector);
+
+    /**
+     * Returns indices of elements of interval vector from the most to the least preferred.
+     * By default vector is copied into ArrayList {W_L, W_U}.
+     */
+    public default int[] fuzzyRanging(IntervalVector fuzzyVector) {
+        ArrayList<Integer> ranging = fuzzyRanging(fuzzyVector.toSimpleMatrices());
+        int[] result = new int[ranging.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = ranging.get(i);
+        }
+        return result;
+    }
 }
@@ -1,11 +1,39 @@
 package globalMethods;
 
+import localMethods.Workspace;
 import org.ejml.simple.SimpleMatrix;
 
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
 /**
- * Class which implements Distributed synthesis method for computing global weights
+ * Class which implements Distributed synthesis method for computing global weights.
+ * Product of local weights and weights of criteria is computed by blocks of rows in ForkJoinPool,
+ * sums of blocks are accumulated with the product and added in order of blocks, so that results
+ * do not depend on number of threads.
  */
 public class DistributedSynthesis implements GlobalWeightsAlg {
+    private static final int BLOCK_SIZE = 4096;
+
+    /**
+     * Minimal number of multiplications for computing in parallel
+     */
+    private static final long PARALLEL_THRESHOLD = 1 << 18;
+
+    private final ForkJoinPool pool;
+
+    public DistributedSynthesis() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param pool pool for computing blocks of rows of large layers
+     */
+    public DistributedSynthesis(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
     @Override
     public String getName() {
         return "Distributed synthesis";
@@ -13,8 +41,151 @@ public class DistributedSynthesis implements GlobalWeightsAlg {
 
     @Override
     public SimpleMatrix computeGlobal(SimpleMatrix weightsCriteria, SimpleMatrix weightsElements) {
-        SimpleMatrix weights = weightsElements.mult(weightsCriteria);
-        return weights.divide(weights.elementSum());
+        if (weightsElements.numCols() != weightsCriteria.getNumElements()) {
+            throw new IndexOutOfBoundsException("Matrix has incorrect dimensions");
+        }
+        SimpleMatrix weights = new SimpleMatrix(weightsElements.numRows(), 1);
+        multNormalise(weightsCriteria.getMatrix().getData(), weightsElements.getMatrix().getData(),
+                weightsElements.numRows(), weightsElements.numCols(), weights.getMatrix().getData());
+        return weights;
+    }
+
+    /**
+     * Computes global weights into caller-supplied vector, only layers computed in parallel allocate
+     */
+    @Override
+    public void computeGlobal(double[] weightsCriteria, int numCriteria, double[] weightsElements, int numElements,
+                              double[] global, Workspace workspace) {
+        multNormalise(weightsCriteria, weightsElements, numElements, numCriteria, global);
+    }
+
+    /**
+     * Computes global weights of the last layer of chain of layers in one pass, without global weights
+     * of intermediate layers. Since distributed synthesis is linear, weights of criteria are multiplied
+     * by local weights of all layers and normalised once. Products of large layers are computed by blocks of
+     * rows in pool, as for one layer.
+     * @param weightsCriteria global weights of the first layer of chain
+     * @param weightsElements local weights of next layers, matrix i has number of columns equal to
+     *                        number of rows of matrix i - 1
+     */
+    public SimpleMatrix computeGlobal(SimpleMatrix weightsCriteria, List<SimpleMatrix> weightsElements) {
+        if (weightsElements.isEmpty()) {
+            throw new IllegalArgumentException("Chain of layers should not be empty");
+        }
+        double[] criteria = weightsCriteria.getMatrix().getData();
+        int numCriteria = weightsCriteria.getNumElements();
+        for (int k = 0; k < weightsElements.size() - 1; k++) {
+            SimpleMatrix layer = weightsElements.get(k);
+            if (layer.numCols() != numCriteria) {
+                throw new IndexOutOfBoundsException("Matrix has incorrect dimensions");
+            }
+            double[] product = new double[layer.numRows()];
+            computeProducts(criteria, numCriteria, layer.getMatrix().getData(), layer.numRows(), product);
+            criteria = product;
+            numCriteria = product.length;
+        }
+
+        SimpleMatrix lastLayer = weightsElements.get(weightsElements.size() - 1);
+        if (lastLayer.numCols() != numCriteria) {
+            throw new IndexOutOfBoundsException("Matrix has incorrect dimensions");
+        }
+        SimpleMatrix weights = new SimpleMatrix(lastLayer.numRows(), 1);
+        multNormalise(criteria, lastLayer.getMatrix().getData(), lastLayer.numRows(), lastLayer.numCols(),
+                weights.getMatrix().getData());
+        return weights;
+    }
+
+    /**
+     * Computes unnormalised global weights: product of local weights and weights of criteria, e.g. for
+     * elements, which local weights are given by blocks of rows. Global weights are obtained by dividing
+     * products of all elements by sum of returned values.
+     * @param weightsElements numElements x numCriteria matrix of local weights stored by rows
+     * @param weights output vector of numElements products
+     * @return sum of products
+     */
+    public double computeProducts(double[] weightsCriteria, int numCriteria, double[] weightsElements,
+                                  int numElements, double[] weights) {
+        final int numBlocks = (numElements + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        if ((long) numElements * numCriteria < PARALLEL_THRESHOLD || numBlocks == 1) {
+            return mult(weightsCriteria, weightsElements, numCriteria, 0, numElements, weights);
+        }
+        double[] blockSums = new double[numBlocks];
+        pool.invoke(new BlocksTask(weightsCriteria, weightsElements, numElements, numCriteria, 0, numBlocks,
+                weights, blockSums));
+        double sum = 0;
+        for (double blockSum : blockSums) {
+            sum += blockSum;
+        }
+        return sum;
+    }
+
+    /**
+     * Computes product of matrix and vector of criteria into weights and divides it by its sum
+     */
+    private void multNormalise(double[] criteria, double[] elements, int numRows, int numCols, double[] weights) {
+        final double sum = computeProducts(criteria, numCols, elements, numRows, weights);
+        for (int i = 0; i < numRows; i++) {
+            weights[i] /= sum;
+        }
     }
 
+    /**
+     * Computes rows [from, to) of product of row-major matrix and vector
+     * @return sum of computed elements
+     */
+    private static double mult(double[] criteria, double[] elements, int numCols, int from, int to,
+                               double[] weights) {
+        double sum = 0;
+        for (int i = from; i < to; i++) {
+            final int row = i * numCols;
+            double weight = 0;
+            for (int j = 0; j < numCols; j++) {
+                weight += elements[row + j] * criteria[j];
+            }
+            weights[i] = weight;
+            sum += weight;
+        }
+        return sum;
+    }
+
+    /**
+     * Computes blocks [fromBlock, toBlock) of rows by splitting range in halves
+     */
+    private static class BlocksTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final double[] criteria;
+        private final double[] elements;
+        private final int numRows;
+        private final int numCols;
+        private final int fromBlock;
+        private final int toBlock;
+        private final double[] weights;
+        private final double[] blockSums;
+
+        BlocksTask(double[] criteria, double[] elements, int numRows, int numCols, int fromBlock, int toBlock,
+                   double[] weights, double[] blockSums) {
+            this.criteria = criteria;
+            this.elements = elements;
+            this.numRows = numRows;
+            this.numCols = numCols;
+            this.fromBlock = fromBlock;
+            this.toBlock = toBlock;
+            this.weights = weights;
+            this.blockSums = blockSums;
+        }
+
+        @Override
+        protected void compute() {
+            if (toBlock - fromBlock == 1) {
+                final int from = fromBlock * BLOCK_SIZE;
+                final int to = Math.min(from + BLOCK_SIZE, numRows);
+                blockSums[fromBlock] = mult(criteria, elements, numCols, from, to, weights);
+                return;
+            }
+            final int middle = (fromBlock + toBlock) >>> 1;
+            invokeAll(new BlocksTask(criteria, elements, numRows, numCols, fromBlock, middle, weights, blockSums),
+                    new BlocksTask(criteria, elements, numRows, numCols, middle, toBlock, weights, blockSums));
+        }
+    }
 }
@@ -1,8 +1,27 @@
 package globalMethods;
 
+import localMethods.Workspace;
 import org.ejml.simple.SimpleMatrix;
 
 public interface GlobalWeightsAlg {
     String getName();
     SimpleMatrix computeGlobal(SimpleMatrix weightsCriteria, SimpleMatrix weightsElements);
+
+    /**
+     * Computes global weights into caller-supplied vector. By default arrays are copied into SimpleMatrix,
+     * algorithms override this method to compute weights without allocations in steady state.
+     * @param weightsCriteria global weights of numCriteria criteria
+     * @param weightsElements numElements x numCriteria matrix of local weights stored by rows
+     * @param global output vector of numElements weights
+     * @param workspace buffers of the calling thread
+     */
+    default void computeGlobal(double[] weightsCriteria, int numCriteria, double[] weightsElements, int numElements,
+                               double[] global, Workspace workspace) {
+        SimpleMatrix criteria = new SimpleMatrix(numCriteria, 1);
+        SimpleMatrix elements = new SimpleMatrix(numElements, numCriteria);
+        System.arraycopy(weightsCriteria, 0, criteria.getMatrix().getData(), 0, numCriteria);
+        System.arraycopy(weightsElements, 0, elements.getMatrix().getData(), 0, numElements * numCriteria);
+        SimpleMatrix weights = computeGlobal(criteria, elements);
+        System.arraycopy(weights.getMatrix().getData(), 0, global, 0, numElements);
+    }
 }
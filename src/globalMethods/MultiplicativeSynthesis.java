@@ -1,12 +1,24 @@
 package globalMethods;
 
+import localMethods.Workspace;
 import org.ejml.simple.SimpleMatrix;
 
+import java.nio.DoubleBuffer;
+import java.util.stream.IntStream;
+
 /**
- * Class which implements Multiplicative synthesis method for computing global weights
+ * Class which implements Multiplicative synthesis method for computing global weights.
+ * Products of powers of local weights are computed in logarithms: sum_j c_j * log(w_ij) is shifted by its
+ * maximum before exponentiation, so that normalised weights are correct even if products underflow.
  */
 
 public class MultiplicativeSynthesis implements GlobalWeightsAlg {
+    /**
+     * Number of alternatives, which sums of logarithms are accumulated while passing over all criteria
+     */
+    private static final int BLOCK_SIZE = 1024;
+    private static final int PARALLEL_THRESHOLD = 64 * BLOCK_SIZE;
+
     @Override
     public String getName() {
         return "Multiplicative synthesis";
@@ -14,11 +26,127 @@ public class MultiplicativeSynthesis implements GlobalWeightsAlg {
 
     @Override
     public SimpleMatrix computeGlobal(SimpleMatrix weightsCriteria, SimpleMatrix weightsElements) {
-        SimpleMatrix weights = new SimpleMatrix(weightsElements.numRows(), 1);
-        weights.set(1);
-        for (int j = 0; j < weightsElements.numCols(); j++) {
-            weights = weights.elementMult(weightsElements.extractVector(false, j).elementPower(weightsCriteria.get(j)));
+        final int numAlternatives = weightsElements.numRows();
+        final int numCriteria = weightsElements.numCols();
+        SimpleMatrix weights = new SimpleMatrix(numAlternatives, 1);
+        computeGlobal(weightsCriteria.getMatrix().getData(), weightsElements.getMatrix().getData(),
+                numAlternatives, numCriteria, numCriteria, 1, weights.getMatrix().getData());
+        return weights;
+    }
+
+    /**
+     * Computes global weights into caller-supplied vector, only layers computed in parallel allocate
+     */
+    @Override
+    public void computeGlobal(double[] weightsCriteria, int numCriteria, double[] weightsElements, int numElements,
+                              double[] global, Workspace workspace) {
+        computeGlobal(weightsCriteria, weightsElements, numElements, numCriteria, numCriteria, 1, global);
+    }
+
+    /**
+     * Computes global weights from column-major buffer of local weights
+     * @param weightsCriteria global weights of criteria
+     * @param weightsElements local weights, weight of alternative i according to criterion j is
+     *                        weightsElements[j * numAlternatives + i]
+     * @param global output vector of numAlternatives global weights
+     */
+    public static void computeGlobal(double[] weightsCriteria, double[] weightsElements, int numAlternatives,
+                                     double[] global) {
+        computeGlobal(weightsCriteria, weightsElements, numAlternatives, weightsCriteria.length, 1, numAlternatives,
+                global);
+    }
+
+    /**
+     * Computes logarithms of unnormalised global weights sum_j c_j * log(w_ij), e.g. for alternatives, which
+     * local weights are given by blocks of rows. Global weights are obtained by normaliseLogs applied to
+     * logarithms of all alternatives.
+     * @param weightsElements numAlternatives x numCriteria matrix of local weights stored by rows
+     * @param logs output vector of numAlternatives logarithms
+     */
+    public static void computeLogs(double[] weightsCriteria, int numCriteria, double[] weightsElements,
+                                   int numAlternatives, double[] logs) {
+        computeLogs(weightsCriteria, weightsElements, numAlternatives, numCriteria, numCriteria, 1, logs);
+    }
+
+    /**
+     * Computes global weights of alternatives by blocks, element (i, j) of local weights is
+     * weightsElements[i * rowStride + j * colStride]
+     */
+    private static void computeGlobal(double[] weightsCriteria, double[] weightsElements, int numAlternatives,
+                                      int numCriteria, int rowStride, int colStride, double[] global) {
+        computeLogs(weightsCriteria, weightsElements, numAlternatives, numCriteria, rowStride, colStride, global);
+        normaliseLogs(global, numAlternatives);
+    }
+
+    private static void computeLogs(double[] weightsCriteria, double[] weightsElements, int numAlternatives,
+                                    int numCriteria, int rowStride, int colStride, double[] global) {
+        if (numAlternatives < PARALLEL_THRESHOLD) {
+            logSums(weightsCriteria, weightsElements, numCriteria, rowStride, colStride, 0, numAlternatives, global);
+        } else {
+            final int numBlocks = (numAlternatives + BLOCK_SIZE - 1) / BLOCK_SIZE;
+            IntStream.range(0, numBlocks).parallel().forEach(b -> logSums(weightsCriteria, weightsElements,
+                    numCriteria, rowStride, colStride, b * BLOCK_SIZE, Math.min((b + 1) * BLOCK_SIZE, numAlternatives),
+                    global));
+        }
+    }
+
+    /**
+     * Computes sums of logarithms of alternatives [from, to) by blocks, passing over all criteria per block
+     */
+    private static void logSums(double[] weightsCriteria, double[] weightsElements, int numCriteria, int rowStride,
+                                int colStride, int from, int to, double[] global) {
+        for (int blockFrom = from; blockFrom < to; blockFrom += BLOCK_SIZE) {
+            final int blockTo = Math.min(blockFrom + BLOCK_SIZE, to);
+            for (int i = blockFrom; i < blockTo; i++) {
+                global[i] = 0;
+            }
+            for (int j = 0; j < numCriteria; j++) {
+                final double c = weightsCriteria[j];
+                // w^0 = 1 even for zero local weight
+                if (c == 0) {
+                    continue;
+                }
+                for (int i = blockFrom; i < blockTo; i++) {
+                    global[i] += c * Math.log(weightsElements[i * rowStride + j * colStride]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Replaces logarithms of unnormalised weights in buffer, e.g. off-heap column, with weights, which sum is 1
+     */
+    public static void normaliseLogs(DoubleBuffer logs, int length) {
+        double max = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < length; i++) {
+            max = Math.max(max, logs.get(i));
+        }
+        double sum = 0;
+        for (int i = 0; i < length; i++) {
+            final double weight = Math.exp(logs.get(i) - max);
+            logs.put(i, weight);
+            sum += weight;
+        }
+        for (int i = 0; i < length; i++) {
+            logs.put(i, logs.get(i) / sum);
+        }
+    }
+
+    /**
+     * Replaces logarithms of unnormalised weights with weights, which sum is 1
+     */
+    public static void normaliseLogs(double[] logs, int length) {
+        double max = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < length; i++) {
+            max = Math.max(max, logs[i]);
+        }
+        double sum = 0;
+        for (int i = 0; i < length; i++) {
+            logs[i] = Math.exp(logs[i] - max);
+            sum += logs[i];
+        }
+        for (int i = 0; i < length; i++) {
+            logs[i] /= sum;
         }
-        return weights.divide(weights.elementSum());
     }
 }
@@ -0,0 +1,155 @@
+package groupMethods;
+
+import fuzzyLocal.FuzzyLocalWeightsAlg;
+import org.ejml.simple.SimpleMatrix;
+
+import java.util.ArrayList;
+
+/**
+ * Streaming aggregation of expert fuzzy matrices of pair comparisons {AL, AM, AU}.
+ * AIJ is applied to each bound separately. AIP aggregates fuzzy weights {WL, WM, WU} of each expert
+ * by weighted geometric mean of each bound, without normalisation.
+ */
+public class FuzzyPairComparisonsAggregator {
+    private final int W_L = 0;
+    private final int W_M = 1;
+    private final int W_U = 2;
+
+    /**
+     * Aggregators of L, M and U matrices
+     */
+    private final PairComparisonsAggregator[] bounds = new PairComparisonsAggregator[3];
+
+    /**
+     * Algorithm for individual fuzzy priorities, null if AIP is not needed
+     */
+    private final FuzzyLocalWeightsAlg prioritiesAlg;
+
+    /**
+     * priorityLogSums[bound][i] = sum_k(v_k * log(w_i^k)) for bound 0 - L, 1 - M, 2 - U
+     */
+    private final double[][] priorityLogSums;
+
+    /**
+     * Aggregator of fuzzy judgments only (AIJ)
+     * @param n dimension of matrices
+     */
+    public FuzzyPairComparisonsAggregator(int n) {
+        this(n, null);
+    }
+
+    /**
+     * Aggregator of fuzzy judgments (AIJ) and fuzzy priorities (AIP)
+     * @param n dimension of matrices
+     * @param prioritiesAlg algorithm for fuzzy priorities of each expert
+     */
+    public FuzzyPairComparisonsAggregator(int n, FuzzyLocalWeightsAlg prioritiesAlg) {
+        for (int k = 0; k < 3; k++) {
+            bounds[k] = new PairComparisonsAggregator(n);
+        }
+        this.prioritiesAlg = prioritiesAlg;
+        this.priorityLogSums = prioritiesAlg == null ? null : new double[3][n];
+    }
+
+    public int getNumExperts() {
+        return bounds[W_M].getNumExperts();
+    }
+
+    /**
+     * Adds fuzzy matrix of expert with weight 1
+     */
+    public void add(ArrayList<SimpleMatrix> fuzzyPairComparisons) {
+        add(fuzzyPairComparisons, 1);
+    }
+
+    /**
+     * Adds fuzzy matrix of expert
+     * @param fuzzyPairComparisons {AL, AM, AU}, matrices are not kept
+     * @param expertWeight weight of expert, positive
+     * @throws IllegalArgumentException if pair comparisons or lower fuzzy weights of expert are not positive,
+     *                                  sums are not changed
+     */
+    public void add(ArrayList<SimpleMatrix> fuzzyPairComparisons, double expertWeight) {
+        final int n = bounds[W_M].getSize();
+        for (SimpleMatrix matrix : fuzzyPairComparisons) {
+            if (matrix.numCols() != n || matrix.numRows() != n) {
+                throw new IndexOutOfBoundsException("Matrix has incorrect dimensions");
+            }
+            PairComparisonsAggregator.checkPositive(matrix);
+        }
+        if (!(expertWeight > 0)) {
+            throw new IllegalArgumentException("Weight of expert should be greater than zero");
+        }
+        // Priorities are computed and checked before sums are changed, so failed expert is not counted
+        ArrayList<SimpleMatrix> priorities = null;
+        if (prioritiesAlg != null) {
+            priorities = prioritiesAlg.computeFuzzyLocal(fuzzyPairComparisons);
+            if (priorities == null) {
+                throw new NullPointerException("Null vector of fuzzy local weights of expert");
+            }
+            for (int i = 0; i < n; i++) {
+                if (!(priorities.get(W_L).get(i) > 0)) {
+                    throw new IllegalArgumentException("Fuzzy local weights of expert should be greater than zero");
+                }
+            }
+        }
+        for (int k = 0; k < 3; k++) {
+            bounds[k].add(fuzzyPairComparisons.get(k), expertWeight);
+        }
+        if (priorities != null) {
+            for (int k = 0; k < 3; k++) {
+                for (int i = 0; i < n; i++) {
+                    priorityLogSums[k][i] += expertWeight * Math.log(priorities.get(k).get(i));
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds sums of other aggregator, e.g. one that aggregated another part of experts in other thread
+     */
+    public void merge(FuzzyPairComparisonsAggregator other) {
+        if ((prioritiesAlg == null) != (other.prioritiesAlg == null)) {
+            throw new IllegalArgumentException("Aggregators should both either compute priorities or not");
+        }
+        for (int k = 0; k < 3; k++) {
+            bounds[k].merge(other.bounds[k]);
+            if (prioritiesAlg != null) {
+                for (int i = 0; i < priorityLogSums[k].length; i++) {
+                    priorityLogSums[k][i] += other.priorityLogSums[k][i];
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns aggregated fuzzy matrix by AIJ
+     * @return {AL, AM, AU}
+     */
+    public ArrayList<SimpleMatrix> getAggregatedMatrices() {
+        ArrayList<SimpleMatrix> aggregated = new ArrayList<>(3);
+        aggregated.add(W_L, bounds[W_L].getAggregatedMatrix());
+        aggregated.add(W_M, bounds[W_M].getAggregatedMatrix());
+        aggregated.add(W_U, bounds[W_U].getAggregatedMatrix());
+        return aggregated;
+    }
+
+    /**
+     * Returns aggregated fuzzy priorities by AIP
+     * @return {WL, WM, WU}
+     */
+    public ArrayList<SimpleMatrix> getAggregatedPriorities() {
+        if (prioritiesAlg == null) {
+            throw new IllegalStateException("Aggregator was created without algorithm for priorities");
+        }
+        if (getNumExperts() == 0) {
+            throw new IllegalStateException("No matrices were added");
+        }
+        final double weightSum = bounds[W_M].getWeightSum();
+        ArrayList<SimpleMatrix> aggregated = new ArrayList<>(3);
+        aggregated.add(W_L, PairComparisonsAggregator.geometricMeans(priorityLogSums[W_L], weightSum));
+        aggregated.add(W_M, PairComparisonsAggregator.geometricMeans(priorityLogSums[W_M], weightSum));
+        aggregated.add(W_U, PairComparisonsAggregator.geometricMeans(priorityLogSums[W_U], weightSum));
+        return aggregated;
+    }
+}
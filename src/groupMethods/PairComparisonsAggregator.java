@@ -0,0 +1,194 @@
+package groupMethods;
+
+import localMethods.LocalWeightsAlg;
+import org.ejml.simple.SimpleMatrix;
+
+import java.util.ArrayList;
+
+/**
+ * Streaming aggregation of expert matrices of pair comparisons by weighted geometric mean.
+ * Keeps running sums of weighted logarithms, so that matrices are not held after they are added.
+ * AIJ (aggregation of individual judgments) - a_ij = exp(sum_k(v_k * log(a_ij^k)) / sum_k(v_k)).
+ * AIP (aggregation of individual priorities) - weights of each expert are computed when matrix is added
+ * and aggregated by the same weighted geometric mean, then normalised.
+ */
+public class PairComparisonsAggregator {
+    private final int n;
+
+    /**
+     * Algorithm for individual priorities, null if AIP is not needed
+     */
+    private final LocalWeightsAlg prioritiesAlg;
+
+    /**
+     * sum_k(v_k * log(a_ij^k)), stored by rows
+     */
+    private final double[] logSums;
+
+    /**
+     * sum_k(v_k * log(w_i^k))
+     */
+    private final double[] priorityLogSums;
+
+    private double weightSum;
+    private int numExperts;
+
+    /**
+     * Aggregator of judgments only (AIJ)
+     * @param n dimension of matrices
+     */
+    public PairComparisonsAggregator(int n) {
+        this(n, null);
+    }
+
+    /**
+     * Aggregator of judgments (AIJ) and priorities (AIP)
+     * @param n dimension of matrices
+     * @param prioritiesAlg algorithm for priorities of each expert
+     */
+    public PairComparisonsAggregator(int n, LocalWeightsAlg prioritiesAlg) {
+        if (n <= 0) throw new IllegalArgumentException("Dimension should be greater than zero");
+        this.n = n;
+        this.prioritiesAlg = prioritiesAlg;
+        this.logSums = new double[n * n];
+        this.priorityLogSums = prioritiesAlg == null ? null : new double[n];
+    }
+
+    public int getSize() {
+        return n;
+    }
+
+    public int getNumExperts() {
+        return numExperts;
+    }
+
+    public double getWeightSum() {
+        return weightSum;
+    }
+
+    /**
+     * Adds matrix of expert with weight 1
+     */
+    public void add(SimpleMatrix pairComparisons) {
+        add(pairComparisons, 1);
+    }
+
+    /**
+     * Adds matrix of expert
+     * @param pairComparisons matrix of pair comparisons, it is not kept
+     * @param expertWeight weight of expert, positive
+     * @throws IllegalArgumentException if pair comparisons or weights of expert are not positive, sums are not changed
+     */
+    public void add(SimpleMatrix pairComparisons, double expertWeight) {
+        if (pairComparisons.numCols() != n || pairComparisons.numRows() != n) {
+            throw new IndexOutOfBoundsException("Matrix has incorrect dimensions");
+        }
+        if (!(expertWeight > 0)) {
+            throw new IllegalArgumentException("Weight of expert should be greater than zero");
+        }
+        checkPositive(pairComparisons);
+        // Priorities are computed and checked before sums are changed, so failed expert is not counted
+        SimpleMatrix priorities = null;
+        if (prioritiesAlg != null) {
+            ArrayList results = prioritiesAlg.computeLocal(pairComparisons);
+            priorities = results == null ? null : (SimpleMatrix) results.get(0);
+            if (priorities == null) {
+                throw new NullPointerException("Null vector of local weights of expert");
+            }
+            for (int i = 0; i < n; i++) {
+                if (!(priorities.get(i) > 0)) {
+                    throw new IllegalArgumentException("Local weights of expert should be greater than zero");
+                }
+            }
+        }
+        double[] a = pairComparisons.getMatrix().getData();
+        for (int i = 0; i < n * n; i++) {
+            logSums[i] += expertWeight * Math.log(a[i]);
+        }
+        if (priorities != null) {
+            for (int i = 0; i < n; i++) {
+                priorityLogSums[i] += expertWeight * Math.log(priorities.get(i));
+            }
+        }
+        weightSum += expertWeight;
+        numExperts++;
+    }
+
+    /**
+     * Checks that all pair comparisons are positive and finite, so that their logarithms are defined
+     */
+    static void checkPositive(SimpleMatrix pairComparisons) {
+        double[] a = pairComparisons.getMatrix().getData();
+        for (int i = 0; i < a.length; i++) {
+            if (!(a[i] > 0) || Double.isInfinite(a[i])) {
+                throw new IllegalArgumentException("Pair comparisons should be positive and finite");
+            }
+        }
+    }
+
+    /**
+     * Adds sums of other aggregator, e.g. one that aggregated another part of experts in other thread
+     */
+    public void merge(PairComparisonsAggregator other) {
+        if (other.n != n) {
+            throw new IndexOutOfBoundsException("Aggregators have different dimensions");
+        }
+        if ((prioritiesAlg == null) != (other.prioritiesAlg == null)) {
+            throw new IllegalArgumentException("Aggregators should both either compute priorities or not");
+        }
+        for (int i = 0; i < n * n; i++) {
+            logSums[i] += other.logSums[i];
+        }
+        if (prioritiesAlg != null) {
+            for (int i = 0; i < n; i++) {
+                priorityLogSums[i] += other.priorityLogSums[i];
+            }
+        }
+        weightSum += other.weightSum;
+        numExperts += other.numExperts;
+    }
+
+    /**
+     * Returns aggregated matrix by AIJ, which is reciprocal if all added matrices are reciprocal
+     * @return new matrix
+     */
+    public SimpleMatrix getAggregatedMatrix() {
+        checkNotEmpty();
+        SimpleMatrix aggregated = new SimpleMatrix(n, n);
+        double[] a = aggregated.getMatrix().getData();
+        for (int i = 0; i < n * n; i++) {
+            a[i] = Math.exp(logSums[i] / weightSum);
+        }
+        return aggregated;
+    }
+
+    /**
+     * Returns aggregated priorities by AIP, normalised to sum 1
+     * @return new vector
+     */
+    public SimpleMatrix getAggregatedPriorities() {
+        if (prioritiesAlg == null) {
+            throw new IllegalStateException("Aggregator was created without algorithm for priorities");
+        }
+        checkNotEmpty();
+        SimpleMatrix aggregated = geometricMeans(priorityLogSums, weightSum);
+        return aggregated.divide(aggregated.elementSum());
+    }
+
+    /**
+     * exp(logSums_i / weightSum)
+     */
+    static SimpleMatrix geometricMeans(double[] logSums, double weightSum) {
+        SimpleMatrix means = new SimpleMatrix(logSums.length, 1);
+        for (int i = 0; i < logSums.length; i++) {
+            means.set(i, Math.exp(logSums[i] / weightSum));
+        }
+        return means;
+    }
+
+    private void checkNotEmpty() {
+        if (numExperts == 0) {
+            throw new IllegalStateException("No matrices were added");
+        }
+    }
+}
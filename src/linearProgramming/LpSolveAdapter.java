@@ -0,0 +1,114 @@
+package linearProgramming;
+
+import lpsolve.LpSolve;
+import lpsolve.LpSolveException;
+
+/**
+ * Class which adapts native lp_solve library to LpSolver
+ */
+public class LpSolveAdapter implements LpSolver {
+    private LpSolve lp;
+    private int numVariables;
+    private int[] columns = new int[0];
+
+    @Override
+    public String getName() {
+        return "lp_solve";
+    }
+
+    @Override
+    public void reset(int numVariables) {
+        deleteModel();
+        this.numVariables = numVariables;
+        if (columns.length < numVariables) {
+            columns = new int[numVariables];
+        }
+        try {
+            lp = LpSolve.makeLp(0, numVariables);
+            lp.setAddRowmode(true);
+        } catch (LpSolveException e) {
+            throw new IllegalStateException("Could not create lp_solve model", e);
+        }
+    }
+
+    @Override
+    public void addConstraint(int count, double[] row, int[] colNum, int type, double rhs) {
+        try {
+            lp.addConstraintex(count, row, toLpColumns(count, colNum), type, rhs);
+        } catch (LpSolveException e) {
+            throw new IllegalStateException("Could not add constraint to lp_solve model", e);
+        }
+    }
+
+    @Override
+    public void setBounds(int column, double lower, double upper) {
+        try {
+            lp.setBounds(column + 1, lower, Double.isInfinite(upper) ? lp.getInfinite() : upper);
+        } catch (LpSolveException e) {
+            throw new IllegalStateException("Could not set bounds in lp_solve model", e);
+        }
+    }
+
+    @Override
+    public void setObjective(int count, double[] row, int[] colNum, boolean maximise) {
+        try {
+            lp.setAddRowmode(false);
+            lp.setObjFnex(count, row, toLpColumns(count, colNum));
+            if (maximise) {
+                lp.setMaxim();
+            } else {
+                lp.setMinim();
+            }
+        } catch (LpSolveException e) {
+            throw new IllegalStateException("Could not set objective in lp_solve model", e);
+        }
+    }
+
+    @Override
+    public double solve() throws LpSolverException {
+        try {
+            lp.setAddRowmode(false);
+            int result = lp.solve();
+            if (result != LpSolve.OPTIMAL && result != LpSolve.SUBOPTIMAL) {
+                throw new LpSolverException("lp_solve finished with status " + result);
+            }
+            return lp.getObjective();
+        } catch (LpSolveException e) {
+            throw new LpSolverException("lp_solve failed", e);
+        }
+    }
+
+    @Override
+    public void getVariables(double[] values) {
+        try {
+            if (values.length == numVariables) {
+                lp.getVariables(values);
+            } else {
+                double[] all = new double[numVariables];
+                lp.getVariables(all);
+                System.arraycopy(all, 0, values, 0, numVariables);
+            }
+        } catch (LpSolveException e) {
+            throw new IllegalStateException("Could not get variables from lp_solve model", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        deleteModel();
+    }
+
+    private int[] toLpColumns(int count, int[] colNum) {
+        for (int k = 0; k < count; k++) {
+            columns[k] = colNum[k] + 1;
+        }
+        return columns;
+    }
+
+    private void deleteModel() {
+        if (lp != null) {
+            lp.deleteLp();
+            lp = null;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package linearProgramming;
+
+/**
+ * Linear programming solver used by LP-based fuzzy methods.
+ * All variables are non-negative unless other bounds are set. Columns are indexed from 0.
+ * Instances are not thread safe: use one solver per thread and reuse it for consecutive models.
+ * Model should be closed when its variables are read, solver can be reset after close.
+ */
+public interface LpSolver extends AutoCloseable {
+    int LE = 1;
+    int GE = 2;
+    int EQ = 3;
+
+    String getName();
+
+    /**
+     * Discards current model and starts new one
+     * @param numVariables number of variables (columns) in the model
+     */
+    void reset(int numVariables);
+
+    /**
+     * Adds constraint sum_k(row[k] * x_colNum[k]) (LE | GE | EQ) rhs
+     * @param count number of nonzero coefficients in row
+     * @param row coefficients
+     * @param colNum column indices of coefficients
+     * @param type LE, GE or EQ
+     * @param rhs right hand side
+     */
+    void addConstraint(int count, double[] row, int[] colNum, int type, double rhs);
+
+    /**
+     * Sets bounds lower <= x_column <= upper. Lower bound should be finite, upper may be Double.POSITIVE_INFINITY
+     */
+    void setBounds(int column, double lower, double upper);
+
+    /**
+     * Sets objective function sum_k(row[k] * x_colNum[k])
+     * @param maximise true for maximisation, false for minimisation
+     */
+    void setObjective(int count, double[] row, int[] colNum, boolean maximise);
+
+    /**
+     * Solves the model
+     * @return optimal value of objective function
+     * @throws LpSolverException if model is infeasible, unbounded or could not be solved
+     */
+    double solve() throws LpSolverException;
+
+    /**
+     * Copies values of variables of the last solved model
+     * @param values array of length not less than number of variables
+     */
+    void getVariables(double[] values);
+
+    /**
+     * Releases resources of the current model, e.g. native lp_solve model
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,13 @@
+package linearProgramming;
+
+public class LpSolverException extends Exception {
+    private static final long serialVersionUID = 1L;
+
+    public LpSolverException(String message) {
+        super(message);
+    }
+
+    public LpSolverException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
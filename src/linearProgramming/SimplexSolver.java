@@ -0,0 +1,450 @@
+package linearProgramming;
+
+import java.util.Arrays;
+
+/**
+ * Class which implements pure Java two-phase simplex method on dense tableau.
+ * Buffers are kept between models, so that repeated solves of models of the same size do not allocate.
+ */
+public class SimplexSolver implements LpSolver {
+    private static final double EPS = 1e-9;
+    private static final double FEASIBILITY_EPS = 1e-7;
+    private static final double PIVOT_EPS = 1e-7;
+    /**
+     * Number of degenerate pivots after which rhs is perturbed to prevent stalling
+     */
+    private static final int DEGENERATE_PIVOTS_LIMIT = 50;
+    private static final double PERTURBATION = 1e-8;
+
+    private int numVariables;
+    private double[] lower = new double[0];
+    private double[] upper = new double[0];
+    private double[] objective = new double[0];
+    private boolean maximise;
+
+    // Constraints in compressed rows: coefficients of row r are entries rowStart[r]..rowStart[r+1]-1
+    private int numConstraints;
+    private int numEntries;
+    private int[] rowStart = new int[1];
+    private int[] entryColumn = new int[0];
+    private double[] entryValue = new double[0];
+    private int[] rowType = new int[0];
+    private double[] rowRhs = new double[0];
+
+    // Tableau with numRows + 1 rows (the last one holds reduced costs) and width columns. The last two columns
+    // hold rhs used by ratio test (perturbed, if model is degenerate) and exact rhs, which is used for solution.
+    private double[] tableau = new double[0];
+    private int[] basis = new int[0];
+    private int numRows;
+    private int width;
+    private int[] nonzero = new int[0];
+    private int[] columnCount = new int[0];
+    private int[] crashColumn = new int[0];
+    private boolean perturbed;
+
+    private double[] solution = new double[0];
+    private double objectiveValue;
+
+    @Override
+    public String getName() {
+        return "Simplex method";
+    }
+
+    @Override
+    public void reset(int numVariables) {
+        this.numVariables = numVariables;
+        if (lower.length < numVariables) {
+            lower = new double[numVariables];
+            upper = new double[numVariables];
+            objective = new double[numVariables];
+            solution = new double[numVariables];
+        }
+        Arrays.fill(lower, 0, numVariables, 0);
+        Arrays.fill(upper, 0, numVariables, Double.POSITIVE_INFINITY);
+        Arrays.fill(objective, 0, numVariables, 0);
+        maximise = false;
+        numConstraints = 0;
+        numEntries = 0;
+        rowStart[0] = 0;
+    }
+
+    @Override
+    public void addConstraint(int count, double[] row, int[] colNum, int type, double rhs) {
+        if (type != LE && type != GE && type != EQ) {
+            throw new IllegalArgumentException("Unknown constraint type");
+        }
+        if (numConstraints + 2 > rowStart.length) {
+            rowStart = Arrays.copyOf(rowStart, 2 * (numConstraints + 2));
+            rowType = Arrays.copyOf(rowType, rowStart.length);
+            rowRhs = Arrays.copyOf(rowRhs, rowStart.length);
+        }
+        if (numEntries + count > entryColumn.length) {
+            entryColumn = Arrays.copyOf(entryColumn, 2 * (numEntries + count));
+            entryValue = Arrays.copyOf(entryValue, entryColumn.length);
+        }
+        for (int k = 0; k < count; k++) {
+            if (colNum[k] < 0 || colNum[k] >= numVariables) {
+                throw new IndexOutOfBoundsException("Incorrect column index");
+            }
+            entryColumn[numEntries] = colNum[k];
+            entryValue[numEntries] = row[k];
+            numEntries++;
+        }
+        rowType[numConstraints] = type;
+        rowRhs[numConstraints] = rhs;
+        numConstraints++;
+        rowStart[numConstraints] = numEntries;
+    }
+
+    @Override
+    public void setBounds(int column, double lower, double upper) {
+        if (Double.isInfinite(lower) || upper < lower) {
+            throw new IllegalArgumentException("Incorrect bounds");
+        }
+        this.lower[column] = lower;
+        this.upper[column] = upper;
+    }
+
+    @Override
+    public void setObjective(int count, double[] row, int[] colNum, boolean maximise) {
+        Arrays.fill(objective, 0, numVariables, 0);
+        for (int k = 0; k < count; k++) {
+            objective[colNum[k]] = row[k];
+        }
+        this.maximise = maximise;
+    }
+
+    @Override
+    public double solve() throws LpSolverException {
+        // Variables are shifted x = lower + x', x' >= 0; finite upper bounds become rows x' <= upper - lower
+        int numBounded = 0;
+        for (int j = 0; j < numVariables; j++) {
+            if (!Double.isInfinite(upper[j])) {
+                numBounded++;
+            }
+        }
+        numRows = numConstraints + numBounded;
+
+        // Every row is scaled by +-1 so that rhs >= 0. Then LE rows get slack variable,
+        // GE rows get surplus and artificial variables, EQ rows get artificial variable.
+        // GE and EQ rows with own variable (which appears in no other row) with positive coefficient
+        // start with this variable in basis and do not need artificial variable.
+        findCrashColumns();
+        int numSlacks = 0;
+        int numArtificial = 0;
+        for (int r = 0; r < numConstraints; r++) {
+            int type = normalisedType(r);
+            if (type != EQ) numSlacks++;
+            if (type != LE && crashColumn[r] < 0) numArtificial++;
+        }
+        numSlacks += numBounded;
+
+        final int slackStart = numVariables;
+        final int artificialStart = slackStart + numSlacks;
+        final int numColumns = artificialStart + numArtificial;
+        width = numColumns + 2;
+        perturbed = false;
+
+        int size = (numRows + 1) * width;
+        if (tableau.length < size) {
+            tableau = new double[size];
+        } else {
+            Arrays.fill(tableau, 0, size, 0);
+        }
+        if (basis.length < numRows) {
+            basis = new int[numRows];
+        }
+
+        int slack = slackStart;
+        int artificial = artificialStart;
+        for (int r = 0; r < numConstraints; r++) {
+            double shiftedRhs = shiftedRhs(r);
+            int type = normalisedType(r);
+            double sign = rowSign(r, shiftedRhs);
+            int offset = r * width;
+            for (int k = rowStart[r]; k < rowStart[r + 1]; k++) {
+                tableau[offset + entryColumn[k]] += sign * entryValue[k];
+            }
+            tableau[offset + numColumns] = sign * shiftedRhs;
+            tableau[offset + numColumns + 1] = sign * shiftedRhs;
+            if (type == LE) {
+                tableau[offset + slack] = 1;
+                basis[r] = slack++;
+            } else {
+                if (type == GE) {
+                    tableau[offset + slack++] = -1;
+                }
+                if (crashColumn[r] >= 0) {
+                    basis[r] = crashColumn[r];
+                    double pivot = tableau[offset + crashColumn[r]];
+                    for (int j = 0; j < width; j++) {
+                        tableau[offset + j] /= pivot;
+                    }
+                } else {
+                    tableau[offset + artificial] = 1;
+                    basis[r] = artificial++;
+                }
+            }
+        }
+        int r = numConstraints;
+        for (int j = 0; j < numVariables; j++) {
+            if (!Double.isInfinite(upper[j])) {
+                int offset = r * width;
+                tableau[offset + j] = 1;
+                tableau[offset + slack] = 1;
+                tableau[offset + numColumns] = upper[j] - lower[j];
+                tableau[offset + numColumns + 1] = upper[j] - lower[j];
+                basis[r++] = slack++;
+            }
+        }
+
+        int costOffset = numRows * width;
+
+        // Phase 1: minimise sum of artificial variables
+        if (numArtificial > 0) {
+            for (int j = artificialStart; j < numColumns; j++) {
+                tableau[costOffset + j] = 1;
+            }
+            for (int i = 0; i < numRows; i++) {
+                if (basis[i] >= artificialStart) {
+                    subtractRow(costOffset, i * width, 1);
+                }
+            }
+            iterate(numColumns);
+            if (-tableau[costOffset + numColumns + 1] > FEASIBILITY_EPS) {
+                throw new LpSolverException("Model is infeasible");
+            }
+
+            // Drive artificial variables out of basis, rows without other nonzero coefficients are redundant
+            for (int i = 0; i < numRows; i++) {
+                if (basis[i] >= artificialStart) {
+                    int offset = i * width;
+                    for (int j = 0; j < artificialStart; j++) {
+                        if (Math.abs(tableau[offset + j]) > EPS) {
+                            pivot(i, j);
+                            break;
+                        }
+                    }
+                }
+            }
+        }
+
+        // Phase 2: minimise objective (negated for maximisation), artificial variables never enter basis
+        Arrays.fill(tableau, costOffset, costOffset + width, 0);
+        double sign = maximise ? -1 : 1;
+        for (int j = 0; j < numVariables; j++) {
+            tableau[costOffset + j] = sign * objective[j];
+        }
+        for (int i = 0; i < numRows; i++) {
+            double cost = tableau[costOffset + basis[i]];
+            if (basis[i] < numVariables && cost != 0) {
+                subtractRow(costOffset, i * width, cost);
+            }
+        }
+        iterate(artificialStart);
+
+        // Read solution
+        for (int j = 0; j < numVariables; j++) {
+            solution[j] = lower[j];
+        }
+        for (int i = 0; i < numRows; i++) {
+            if (basis[i] < numVariables) {
+                solution[basis[i]] += Math.max(tableau[i * width + numColumns + 1], 0);
+            }
+        }
+        objectiveValue = 0;
+        for (int j = 0; j < numVariables; j++) {
+            objectiveValue += objective[j] * solution[j];
+        }
+        return objectiveValue;
+    }
+
+    @Override
+    public void getVariables(double[] values) {
+        System.arraycopy(solution, 0, values, 0, numVariables);
+    }
+
+    /**
+     * Model is stored in Java arrays, which are kept for the next models
+     */
+    @Override
+    public void close() {
+    }
+
+    /**
+     * Runs simplex iterations on tableau until reduced costs of first numColumns columns are non-negative
+     */
+    private void iterate(int numColumns) throws LpSolverException {
+        final int costOffset = numRows * width;
+        final int rhs = width - 2;
+        final int maxIterations = 50 * (numRows + width);
+        int degeneratePivots = 0;
+
+        for (int iteration = 0; iteration < maxIterations; iteration++) {
+            // Entering column: most negative reduced cost
+            int entering = -1;
+            double minCost = -EPS;
+            for (int j = 0; j < numColumns; j++) {
+                double cost = tableau[costOffset + j];
+                if (cost < minCost) {
+                    entering = j;
+                    minCost = cost;
+                }
+            }
+            if (entering < 0) {
+                return;
+            }
+
+            // Leaving row by Harris ratio test: bound of step with relaxed rhs,
+            // then the largest pivot element among rows, which ratio is within bound
+            double bound = Double.POSITIVE_INFINITY;
+            for (int i = 0; i < numRows; i++) {
+                double a = tableau[i * width + entering];
+                if (a > PIVOT_EPS) {
+                    bound = Math.min(bound, (Math.max(tableau[i * width + rhs], 0) + EPS) / a);
+                }
+            }
+            if (Double.isInfinite(bound)) {
+                throw new LpSolverException("Model is unbounded");
+            }
+            int leaving = -1;
+            double maxPivot = 0;
+            for (int i = 0; i < numRows; i++) {
+                double a = tableau[i * width + entering];
+                if (a > PIVOT_EPS && Math.max(tableau[i * width + rhs], 0) / a <= bound && a > maxPivot) {
+                    leaving = i;
+                    maxPivot = a;
+                }
+            }
+
+            if (tableau[leaving * width + rhs] <= EPS) {
+                degeneratePivots++;
+                if (degeneratePivots == DEGENERATE_PIVOTS_LIMIT && !perturbed) {
+                    perturb();
+                }
+            }
+            pivot(leaving, entering);
+        }
+        throw new LpSolverException("Iteration limit is reached");
+    }
+
+    private void pivot(int pivotRow, int pivotColumn) {
+        final int pivotOffset = pivotRow * width;
+        final double pivot = tableau[pivotOffset + pivotColumn];
+
+        // Normalise pivot row and collect its nonzero columns, other rows are updated only in these columns
+        if (nonzero.length < width) {
+            nonzero = new int[width];
+        }
+        int count = 0;
+        for (int j = 0; j < width; j++) {
+            if (tableau[pivotOffset + j] != 0) {
+                tableau[pivotOffset + j] /= pivot;
+                nonzero[count++] = j;
+            }
+        }
+        tableau[pivotOffset + pivotColumn] = 1;
+
+        for (int i = 0; i <= numRows; i++) {
+            if (i == pivotRow) continue;
+            int offset = i * width;
+            double factor = tableau[offset + pivotColumn];
+            if (factor != 0) {
+                for (int k = 0; k < count; k++) {
+                    int j = nonzero[k];
+                    tableau[offset + j] -= factor * tableau[pivotOffset + j];
+                }
+                tableau[offset + pivotColumn] = 0;
+            }
+        }
+        basis[pivotRow] = pivotColumn;
+    }
+
+    /**
+     * Adds small positive values to rhs used by ratio test, which breaks ties of degenerate vertices
+     */
+    private void perturb() {
+        final int rhs = width - 2;
+        long seed = 0x2545F4914F6CDD1DL;
+        for (int i = 0; i < numRows; i++) {
+            seed ^= seed << 13;
+            seed ^= seed >>> 7;
+            seed ^= seed << 17;
+            double random = (seed >>> 11) * 0x1.0p-53;
+            int offset = i * width + rhs;
+            tableau[offset] += PERTURBATION * (1 + random) * (1 + Math.abs(tableau[offset]));
+        }
+        perturbed = true;
+    }
+
+    /**
+     * For every constraint finds column which appears only in this row with positive coefficient
+     * (after scaling row to non-negative rhs), or -1
+     */
+    private void findCrashColumns() {
+        if (columnCount.length < numVariables) {
+            columnCount = new int[numVariables];
+        }
+        if (crashColumn.length < numConstraints) {
+            crashColumn = new int[numConstraints];
+        }
+        Arrays.fill(columnCount, 0, numVariables, 0);
+        for (int k = 0; k < numEntries; k++) {
+            columnCount[entryColumn[k]]++;
+        }
+        for (int j = 0; j < numVariables; j++) {
+            if (!Double.isInfinite(upper[j])) {
+                columnCount[j]++;
+            }
+        }
+        for (int r = 0; r < numConstraints; r++) {
+            crashColumn[r] = -1;
+            double sign = rowSign(r, shiftedRhs(r));
+            for (int k = rowStart[r]; k < rowStart[r + 1]; k++) {
+                if (columnCount[entryColumn[k]] == 1 && sign * entryValue[k] > EPS) {
+                    crashColumn[r] = entryColumn[k];
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * tableau[target] -= factor * tableau[source]
+     */
+    private void subtractRow(int targetOffset, int sourceOffset, double factor) {
+        for (int j = 0; j < width; j++) {
+            tableau[targetOffset + j] -= factor * tableau[sourceOffset + j];
+        }
+    }
+
+    /**
+     * Rhs of constraint r after shift x = lower + x'
+     */
+    private double shiftedRhs(int r) {
+        double rhs = rowRhs[r];
+        for (int k = rowStart[r]; k < rowStart[r + 1]; k++) {
+            rhs -= entryValue[k] * lower[entryColumn[k]];
+        }
+        return rhs;
+    }
+
+    /**
+     * Multiplier of constraint r, which makes rhs non-negative. GE rows with zero rhs are turned into LE rows,
+     * so that they do not need artificial variable.
+     */
+    private double rowSign(int r, double shiftedRhs) {
+        if (shiftedRhs < 0 || (shiftedRhs == 0 && rowType[r] == GE)) {
+            return -1;
+        }
+        return 1;
+    }
+
+    private int normalisedType(int r) {
+        int type = rowType[r];
+        if (type == EQ || rowSign(r, shiftedRhs(r)) > 0) {
+            return type;
+        }
+        return type == LE ? GE : LE;
+    }
+}
@@ -0,0 +1,43 @@
+package linearProgramming;
+
+/**
+ * Buffer for nonzero coefficients of one constraint or objective function
+ */
+public class SparseRow {
+    private final int[] colNum;
+    private final double[] row;
+    private int count;
+
+    /**
+     * @param capacity maximum number of nonzero coefficients in row
+     */
+    public SparseRow(int capacity) {
+        this.colNum = new int[capacity];
+        this.row = new double[capacity];
+    }
+
+    public SparseRow clear() {
+        count = 0;
+        return this;
+    }
+
+    /**
+     * Adds coefficient for column, zero coefficients are skipped
+     */
+    public SparseRow add(int column, double value) {
+        if (value != 0) {
+            colNum[count] = column;
+            row[count] = value;
+            count++;
+        }
+        return this;
+    }
+
+    public void addConstraint(LpSolver lp, int type, double rhs) {
+        lp.addConstraint(count, row, colNum, type, rhs);
+    }
+
+    public void setObjective(LpSolver lp, boolean maximise) {
+        lp.setObjective(count, row, colNum, maximise);
+    }
+}
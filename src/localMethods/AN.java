@@ -18,11 +18,81 @@ public class AN implements LocalWeightsAlg {
         // Compute weight by AN
         int n = pairwiseComparisons.numCols();
         SimpleMatrix local = new SimpleMatrix(n, 1);
+        double hci = computeLocal(pairwiseComparisons.getMatrix().getData(), 0, n, local.getMatrix().getData(), 0);
+
+        // Return weights and HCI
+        ArrayList results = new ArrayList(2);
+        results.add(local);
+        results.add(hci);
+        return results;
+    }
+
+    @Override
+    public double computeLocal(double[] pairwiseComparisons, int n, double[] weights, Workspace workspace) {
+        return computeLocal(pairwiseComparisons, 0, n, weights, 0);
+    }
+
+    /**
+     * Computes weights and HCI by AN from packed elements above diagonal
+     */
+    @Override
+    public ArrayList computeLocal(ReciprocalMatrix pairwiseComparisons) {
+        final int n = pairwiseComparisons.getSize();
+        final double[] upper = pairwiseComparisons.getUpperTriangle();
+        SimpleMatrix local = new SimpleMatrix(n, 1);
         for (int j = 0; j < n; j++) {
-            SimpleMatrix column = pairwiseComparisons.extractVector(false, j);
-            local.set(j, 1./ column.elementSum());
+            double columnSum = 0;
+            for (int i = 0; i < n; i++) {
+                if (i < j) {
+                    columnSum += upper[pairwiseComparisons.index(i, j)];
+                } else if (i > j) {
+                    columnSum += 1 / upper[pairwiseComparisons.index(j, i)];
+                } else {
+                    columnSum += 1;
+                }
+            }
+            local.set(j, 1. / columnSum);
         }
+        return normalise(local, n);
+    }
+
+    /**
+     * Computes weights and HCI of matrices [from, to) of batch by AN
+     */
+    @Override
+    public void computeLocalBatch(double[] pairwiseComparisons, int n, int from, int to, double[] weights,
+                                  double[] consistencyIndices) {
+        for (int k = from; k < to; k++) {
+            consistencyIndices[k] = computeLocal(pairwiseComparisons, k * n * n, n, weights, k * n);
+        }
+    }
+
+    /**
+     * Computes weights by inverse column sums of matrix starting at offset
+     * @return HCI
+     */
+    private static double computeLocal(double[] a, int offset, int n, double[] weights, int weightsOffset) {
+        double inverseSum = 0;
+        for (int j = 0; j < n; j++) {
+            double columnSum = 0;
+            for (int i = 0; i < n; i++) {
+                columnSum += a[offset + i * n + j];
+            }
+            weights[weightsOffset + j] = 1. / columnSum;
+            inverseSum += weights[weightsOffset + j];
+        }
+        double harmonicMean = n / inverseSum;
+        double hci = (harmonicMean - n) * (n + 1) / (n * (n - 1));
+        for (int j = 0; j < n; j++) {
+            weights[weightsOffset + j] /= inverseSum;
+        }
+        return hci;
+    }
 
+    /**
+     * Computes HCI by inverse column sums and normalises them into weights
+     */
+    private ArrayList normalise(SimpleMatrix local, int n) {
         // Compute HCI
         double harmonicMean = n / local.elementSum();
         double hci = (harmonicMean - n) * (n + 1) / (n * (n - 1));
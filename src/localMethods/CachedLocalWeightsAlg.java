@@ -0,0 +1,78 @@
+package localMethods;
+
+import org.ejml.simple.SimpleMatrix;
+
+import java.util.ArrayList;
+
+/**
+ * Local weights algorithm, which serves repeated matrices of pair comparisons from cache
+ */
+public class CachedLocalWeightsAlg implements LocalWeightsAlg {
+    private final LocalWeightsAlg localWeightsAlg;
+    private final LocalWeightsCache cache;
+    private final Object cacheId;
+
+    /**
+     * Cached weights are shared only with other wrappers of the same instance of algorithm
+     * @param localWeightsAlg algorithm, which computes weights on cache miss
+     * @param cache cache, which can be shared between algorithms
+     */
+    public CachedLocalWeightsAlg(LocalWeightsAlg localWeightsAlg, LocalWeightsCache cache) {
+        this(localWeightsAlg, cache, localWeightsAlg);
+    }
+
+    /**
+     * @param localWeightsAlg algorithm, which computes weights on cache miss
+     * @param cache cache, which can be shared between algorithms
+     * @param cacheId id of configuration of algorithm, cached weights are shared with algorithms with equal ids.
+     *                By default it is the instance of algorithm
+     */
+    public CachedLocalWeightsAlg(LocalWeightsAlg localWeightsAlg, LocalWeightsCache cache, Object cacheId) {
+        if (cacheId == null) throw new NullPointerException("Null id of algorithm in cache");
+        this.localWeightsAlg = localWeightsAlg;
+        this.cache = cache;
+        this.cacheId = cacheId;
+    }
+
+    @Override
+    public String getName() {
+        return localWeightsAlg.getName();
+    }
+
+    @Override
+    public ArrayList computeLocal(SimpleMatrix pairwiseComparisons) {
+        double[][] matrices = {pairwiseComparisons.getMatrix().getData()};
+        double[][] values = cache.get(cacheId, pairwiseComparisons.numCols(), matrices,
+                () -> toValues(localWeightsAlg.computeLocal(pairwiseComparisons)));
+        return toResults(values);
+    }
+
+    /**
+     * Packed matrices are cached separately from dense ones
+     */
+    @Override
+    public ArrayList computeLocal(ReciprocalMatrix pairwiseComparisons) {
+        double[][] matrices = {pairwiseComparisons.getUpperTriangle()};
+        double[][] values = cache.get(cacheId, -pairwiseComparisons.getSize(), matrices,
+                () -> toValues(localWeightsAlg.computeLocal(pairwiseComparisons)));
+        return toResults(values);
+    }
+
+    /**
+     * {weights, {consistency index}}
+     */
+    private static double[][] toValues(ArrayList results) {
+        SimpleMatrix weights = (SimpleMatrix) results.get(0);
+        return new double[][] {weights.getMatrix().getData().clone(), {(double) results.get(1)}};
+    }
+
+    private static ArrayList toResults(double[][] values) {
+        SimpleMatrix local = new SimpleMatrix(values[0].length, 1);
+        System.arraycopy(values[0], 0, local.getMatrix().getData(), 0, values[0].length);
+
+        ArrayList results = new ArrayList(2);
+        results.add(local);
+        results.add(values[1][0]);
+        return results;
+    }
+}
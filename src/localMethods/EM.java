@@ -9,13 +9,200 @@ import java.util.ArrayList;
  * Class which implements Eigenvalue Method for computing local weights
  */
 public class EM implements LocalWeightsAlg {
+    /**
+     * Initial vector for power iteration
+     */
+    public enum Seed {
+        RGMM, AN
+    }
+
+    private final boolean powerIteration;
+    private final Seed seed;
+    private final double tolerance;
+    private final int maxIterations;
+
+    /**
+     * Eigenvalue Method by full eigenvalue decomposition
+     */
+    public EM() {
+        this.powerIteration = false;
+        this.seed = Seed.RGMM;
+        this.tolerance = 0;
+        this.maxIterations = 0;
+    }
+
+    /**
+     * Eigenvalue Method by power iteration. Falls back to full eigenvalue decomposition
+     * if iterations do not converge.
+     * @param seed method which computes initial vector, if no previous weights are given
+     * @param tolerance maximum absolute change of normalised vector between two iterations
+     * @param maxIterations maximum number of iterations
+     */
+    public EM(Seed seed, double tolerance, int maxIterations) {
+        if (tolerance <= 0) throw new IllegalArgumentException("Tolerance should be greater than zero");
+        if (maxIterations <= 0) throw new IllegalArgumentException("Number of iterations should be greater than zero");
+        this.powerIteration = true;
+        this.seed = seed;
+        this.tolerance = tolerance;
+        this.maxIterations = maxIterations;
+    }
+
     @Override
     public String getName() {
-        return "Eigenvalue Method";
+        return powerIteration ? "Eigenvalue Method (power iteration)" : "Eigenvalue Method";
     }
 
     @Override
     public ArrayList computeLocal(SimpleMatrix pairwiseComparisons) {
+        return computeLocal(pairwiseComparisons, null);
+    }
+
+    /**
+     * Computes local weights starting power iteration from the given vector
+     * @param pairwiseComparisons matrix of pair comparisons
+     * @param initialWeights initial vector (e.g. previous local weights of the node),
+     *                       if null or of wrong size - vector computed by seed method is used
+     * @return weights and CI
+     */
+    public ArrayList computeLocal(SimpleMatrix pairwiseComparisons, SimpleMatrix initialWeights) {
+        if (!powerIteration) {
+            return computeByDecomposition(pairwiseComparisons);
+        }
+
+        int n = pairwiseComparisons.numCols();
+        double[] a = pairwiseComparisons.getMatrix().getData();
+        double[] w = new double[n];
+        double[] next = new double[n];
+
+        if (initialWeights != null && initialWeights.getNumElements() == n) {
+            for (int i = 0; i < n; i++) {
+                w[i] = initialWeights.get(i);
+            }
+            normalise(w, n);
+        } else {
+            seed(a, 0, n, w);
+        }
+
+        double lambda = powerIteration(a, 0, n, w, next);
+        if (Double.isNaN(lambda)) {
+            return computeByDecomposition(pairwiseComparisons);
+        }
+        SimpleMatrix ev = new SimpleMatrix(n, 1);
+        for (int i = 0; i < n; i++) {
+            ev.set(i, w[i]);
+        }
+
+        // Return weights and CI
+        ArrayList results = new ArrayList(2);
+        results.add(ev);
+        results.add((lambda - n) / (n - 1));
+        return results;
+    }
+
+    /**
+     * Computes weights and CI by power iteration, which uses output vector and one vector of workspace.
+     * Full decomposition and fallback after non-converged iterations allocate.
+     */
+    @Override
+    public double computeLocal(double[] pairwiseComparisons, int n, double[] weights, Workspace workspace) {
+        if (powerIteration) {
+            seed(pairwiseComparisons, 0, n, weights);
+            double lambda = powerIteration(pairwiseComparisons, 0, n, weights, workspace.getDoubles(0, n));
+            if (!Double.isNaN(lambda)) {
+                return (lambda - n) / (n - 1);
+            }
+        }
+        return computeByDecomposition(pairwiseComparisons, 0, n, weights, 0);
+    }
+
+    /**
+     * Computes weights and CI of matrices [from, to) of batch. Power iteration uses two vectors per chunk,
+     * full decomposition and fallback after non-converged iterations copy matrix into SimpleMatrix.
+     */
+    @Override
+    public void computeLocalBatch(double[] pairwiseComparisons, int n, int from, int to, double[] weights,
+                                  double[] consistencyIndices) {
+        if (!powerIteration) {
+            LocalWeightsAlg.super.computeLocalBatch(pairwiseComparisons, n, from, to, weights, consistencyIndices);
+            return;
+        }
+        double[] w = new double[n];
+        double[] next = new double[n];
+        for (int k = from; k < to; k++) {
+            final int offset = k * n * n;
+            seed(pairwiseComparisons, offset, n, w);
+            double lambda = powerIteration(pairwiseComparisons, offset, n, w, next);
+            if (Double.isNaN(lambda)) {
+                consistencyIndices[k] = computeByDecomposition(pairwiseComparisons, offset, n, weights, k * n);
+                continue;
+            }
+            System.arraycopy(w, 0, weights, k * n, n);
+            consistencyIndices[k] = (lambda - n) / (n - 1);
+        }
+    }
+
+    /**
+     * Computes initial vector of power iteration by seed method
+     */
+    private void seed(double[] a, int offset, int n, double[] w) {
+        if (seed == Seed.AN) {
+            seedAN(a, offset, n, w);
+            normalise(w, n);
+        } else {
+            RGMM.computeWeights(a, offset, n, w, 0);
+        }
+    }
+
+    /**
+     * Runs power iteration for matrix starting at offset from normalised vector w
+     * @param w initial vector, replaced with eigenvector if iterations converged
+     * @param next work vector of length n
+     * @return maximum eigenvalue or NaN if iterations did not converge
+     */
+    private double powerIteration(double[] a, int offset, int n, double[] w, double[] next) {
+        for (int k = 0; k < maxIterations; k++) {
+            // next = A * w, lambda = sum(next) as sum(w) = 1
+            double lambda = 0;
+            for (int i = 0; i < n; i++) {
+                double value = 0;
+                int row = offset + i * n;
+                for (int j = 0; j < n; j++) {
+                    value += a[row + j] * w[j];
+                }
+                next[i] = value;
+                lambda += value;
+            }
+
+            double change = 0;
+            for (int i = 0; i < n; i++) {
+                next[i] /= lambda;
+                change = Math.max(change, Math.abs(next[i] - w[i]));
+            }
+            System.arraycopy(next, 0, w, 0, n);
+
+            if (change < tolerance) {
+                return lambda;
+            }
+        }
+        return Double.NaN;
+    }
+
+    /**
+     * Computes weights by decomposition of matrix starting at offset, which is copied into SimpleMatrix
+     * @return CI
+     */
+    private double computeByDecomposition(double[] a, int offset, int n, double[] weights, int weightsOffset) {
+        SimpleMatrix matrix = new SimpleMatrix(n, n);
+        System.arraycopy(a, offset, matrix.getMatrix().getData(), 0, n * n);
+        ArrayList results = computeByDecomposition(matrix);
+        SimpleMatrix local = (SimpleMatrix) results.get(0);
+        for (int i = 0; i < n; i++) {
+            weights[weightsOffset + i] = local.get(i);
+        }
+        return (double) results.get(1);
+    }
+
+    private ArrayList computeByDecomposition(SimpleMatrix pairwiseComparisons) {
         // Find eigenvector corresponding to the maximum eigenvalue
         SimpleEVD evd = pairwiseComparisons.eig();
         SimpleMatrix ev = evd.getEigenVector(evd.getIndexMax());
@@ -32,4 +219,27 @@ public class EM implements LocalWeightsAlg {
         results.add(consistency);
         return results;
     }
+
+    /**
+     * Inverse column sums (not normalised)
+     */
+    private static void seedAN(double[] a, int offset, int n, double[] w) {
+        for (int j = 0; j < n; j++) {
+            double sum = 0;
+            for (int i = 0; i < n; i++) {
+                sum += a[offset + i * n + j];
+            }
+            w[j] = 1. / sum;
+        }
+    }
+
+    private static void normalise(double[] w, int n) {
+        double sum = 0;
+        for (int i = 0; i < n; i++) {
+            sum += w[i];
+        }
+        for (int i = 0; i < n; i++) {
+            w[i] /= sum;
+        }
+    }
 }
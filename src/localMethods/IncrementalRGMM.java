@@ -0,0 +1,167 @@
+package localMethods;
+
+import org.ejml.simple.SimpleMatrix;
+
+/**
+ * Row Geometric Mean Method for a matrix of pair comparisons, which is changed by single comparisons.
+ * Keeps logarithms of comparisons, per-row log sums and the sum of squared errors of GCI, so that
+ * after changing a_ij (and a_ji = 1/a_ij) weights and GCI are updated in O(n) instead of O(n^2).
+ */
+public class IncrementalRGMM {
+    private final int n;
+
+    /**
+     * log(a_ij), stored by rows
+     */
+    private final double[] logComparisons;
+
+    /**
+     * s_i = sum_j(log(a_ij))
+     */
+    private final double[] rowLogSums;
+
+    /**
+     * Normalised weights
+     */
+    private final double[] weights;
+
+    /**
+     * sum_i<j(e_ij^2), where e_ij = log(a_ij) + (s_j - s_i) / n
+     */
+    private double errorSum;
+
+    /**
+     * @param pairwiseComparisons matrix of pair comparisons, it is copied and not changed by updates
+     */
+    public IncrementalRGMM(SimpleMatrix pairwiseComparisons) {
+        if (pairwiseComparisons.numCols() != pairwiseComparisons.numRows()) {
+            throw new IndexOutOfBoundsException("Matrix has incorrect dimensions");
+        }
+        n = pairwiseComparisons.numCols();
+        logComparisons = new double[n * n];
+        rowLogSums = new double[n];
+        weights = new double[n];
+
+        double[] a = pairwiseComparisons.getMatrix().getData();
+        for (int i = 0; i < n * n; i++) {
+            logComparisons[i] = Math.log(a[i]);
+        }
+        recompute();
+    }
+
+    /**
+     * Recomputes row sums, GCI and weights from scratch in O(n^2), e.g. to drop rounding errors
+     * accumulated by many updates
+     */
+    public void recompute() {
+        for (int i = 0; i < n; i++) {
+            double logSum = 0;
+            int offset = i * n;
+            for (int j = 0; j < n; j++) {
+                logSum += logComparisons[offset + j];
+            }
+            rowLogSums[i] = logSum;
+        }
+
+        errorSum = 0;
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                errorSum += squaredError(i, j);
+            }
+        }
+        updateWeights();
+    }
+
+    /**
+     * Sets a_ij = value and a_ji = 1 / value and updates weights and GCI in O(n)
+     * @param i row of changed comparison
+     * @param j column of changed comparison
+     * @param value new comparison, positive
+     */
+    public void update(int i, int j, double value) {
+        if (i < 0 || i >= n || j < 0 || j >= n || i == j) {
+            throw new IndexOutOfBoundsException("Incorrect comparison index");
+        }
+        if (!(value > 0)) {
+            throw new IllegalArgumentException("Comparison should be greater than zero");
+        }
+
+        // Only errors of pairs containing i or j depend on changed comparison and on s_i, s_j
+        errorSum -= errorsOf(i, j);
+
+        double logValue = Math.log(value);
+        double delta = logValue - logComparisons[i * n + j];
+        logComparisons[i * n + j] = logValue;
+        logComparisons[j * n + i] = -logValue;
+        rowLogSums[i] += delta;
+        rowLogSums[j] -= delta;
+
+        errorSum = Math.max(0, errorSum + errorsOf(i, j));
+        updateWeights();
+    }
+
+    /**
+     * Sum of squared errors of all pairs (k, l), k < l, which contain i or j
+     */
+    private double errorsOf(int i, int j) {
+        double sum = 0;
+        for (int k = 0; k < n; k++) {
+            if (k != i) {
+                sum += squaredError(Math.min(i, k), Math.max(i, k));
+            }
+            if (k != i && k != j) {
+                sum += squaredError(Math.min(j, k), Math.max(j, k));
+            }
+        }
+        return sum;
+    }
+
+    private double squaredError(int i, int j) {
+        double e = logComparisons[i * n + j] + (rowLogSums[j] - rowLogSums[i]) / n;
+        return e * e;
+    }
+
+    private void updateWeights() {
+        for (int i = 0; i < n; i++) {
+            weights[i] = rowLogSums[i] / n;
+        }
+        RGMM.normaliseExp(weights, n);
+    }
+
+    public int getSize() {
+        return n;
+    }
+
+    public double getComparison(int i, int j) {
+        return Math.exp(logComparisons[i * n + j]);
+    }
+
+    /**
+     * @return new vector of normalised weights
+     */
+    public SimpleMatrix getWeights() {
+        SimpleMatrix local = new SimpleMatrix(n, 1);
+        for (int i = 0; i < n; i++) {
+            local.set(i, weights[i]);
+        }
+        return local;
+    }
+
+    public double getWeight(int i) {
+        return weights[i];
+    }
+
+    /**
+     * GCI = 2 / ((n-1)(n-2)) * sum_i<j(e_ij^2)
+     */
+    public double getConsistencyIndex() {
+        return 2. / ((n - 1) * (n - 2)) * errorSum;
+    }
+
+    /**
+     * @return copy of per-row log sums s_i = sum_j(log(a_ij))
+     */
+    public double[] getRowLogSums() {
+        return rowLogSums.clone();
+    }
+}
@@ -3,8 +3,77 @@ package localMethods;
 import org.ejml.simple.SimpleMatrix;
 
 import java.util.ArrayList;
+import java.util.stream.IntStream;
 
 public interface LocalWeightsAlg {
     public String getName();
     public ArrayList computeLocal(SimpleMatrix pairwiseComparisons);
+
+    /**
+     * Computes local weights by packed reciprocal matrix. By default matrix is expanded to dense one,
+     * algorithms that can read packed elements directly override this method.
+     */
+    public default ArrayList computeLocal(ReciprocalMatrix pairwiseComparisons) {
+        return computeLocal(pairwiseComparisons.toSimpleMatrix());
+    }
+
+    /**
+     * Computes local weights into caller-supplied vector. By default matrix is copied into SimpleMatrix,
+     * algorithms override this method to compute weights without allocations in steady state.
+     * @param pairwiseComparisons n x n matrix stored by rows
+     * @param n dimension of matrix
+     * @param weights output vector of n weights
+     * @param workspace buffers of the calling thread
+     * @return consistency index
+     */
+    public default double computeLocal(double[] pairwiseComparisons, int n, double[] weights, Workspace workspace) {
+        SimpleMatrix matrix = new SimpleMatrix(n, n);
+        System.arraycopy(pairwiseComparisons, 0, matrix.getMatrix().getData(), 0, n * n);
+        ArrayList results = computeLocal(matrix);
+        SimpleMatrix local = (SimpleMatrix) results.get(0);
+        for (int i = 0; i < n; i++) {
+            weights[i] = local.get(i);
+        }
+        return (double) results.get(1);
+    }
+
+    /**
+     * Computes local weights of batch of matrices of the same size in parallel chunks
+     * @param pairwiseComparisons n x n matrices stored by rows one after another
+     * @param n dimension of matrices
+     * @param weights output array, weights of matrix k are stored in elements [k * n, (k + 1) * n)
+     * @param consistencyIndices output array of consistency indices of matrices
+     */
+    public default void computeLocalBatch(double[] pairwiseComparisons, int n, double[] weights,
+                                          double[] consistencyIndices) {
+        if (n <= 0 || pairwiseComparisons.length % (n * n) != 0) {
+            throw new IndexOutOfBoundsException("Matrix has incorrect dimensions");
+        }
+        final int numMatrices = pairwiseComparisons.length / (n * n);
+        if (weights.length < numMatrices * n || consistencyIndices.length < numMatrices) {
+            throw new IndexOutOfBoundsException("Output array has incorrect dimensions");
+        }
+        final int chunkSize = 256;
+        final int numChunks = (numMatrices + chunkSize - 1) / chunkSize;
+        IntStream.range(0, numChunks).parallel().forEach(c -> computeLocalBatch(pairwiseComparisons, n,
+                c * chunkSize, Math.min((c + 1) * chunkSize, numMatrices), weights, consistencyIndices));
+    }
+
+    /**
+     * Computes local weights of matrices [from, to) of batch in calling thread. By default each matrix is
+     * copied into SimpleMatrix, algorithms override this method to compute batch without allocations per matrix.
+     */
+    public default void computeLocalBatch(double[] pairwiseComparisons, int n, int from, int to, double[] weights,
+                                          double[] consistencyIndices) {
+        for (int k = from; k < to; k++) {
+            SimpleMatrix matrix = new SimpleMatrix(n, n);
+            System.arraycopy(pairwiseComparisons, k * n * n, matrix.getMatrix().getData(), 0, n * n);
+            ArrayList results = computeLocal(matrix);
+            SimpleMatrix local = (SimpleMatrix) results.get(0);
+            for (int i = 0; i < n; i++) {
+                weights[k * n + i] = local.get(i);
+            }
+            consistencyIndices[k] = (double) results.get(1);
+        }
+    }
 }
@@ -0,0 +1,161 @@
+package localMethods;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Cache of local weights addressed by contents of matrices of pair comparisons and id of algorithm.
+ * Entries are evicted in least recently used order when total number of doubles held in keys and values
+ * exceeds the given bound. Keys keep copies of matrices, so that hash collisions never return wrong weights.
+ * Ids are compared by equals, so only algorithms with equal configurations should have equal ids,
+ * e.g. GPM solved by different LP solvers may give different optimal weights. Cache is thread-safe.
+ */
+public class LocalWeightsCache {
+    private final long maxSize;
+    private final LinkedHashMap<Key, double[][]> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long size;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * @param maxSize maximum number of doubles held in matrices and weights of all entries
+     */
+    public LocalWeightsCache(long maxSize) {
+        if (maxSize <= 0) throw new IllegalArgumentException("Size of cache should be greater than zero");
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Returns cached values for matrices or computes and caches them
+     * @param algorithm id of algorithm, e.g. the instance of algorithm
+     * @param form form of matrices, e.g. dimension and storage, entries with different forms never match
+     * @param matrices contents of matrices, they are copied if new entry is added
+     * @param compute computes values on cache miss, null values are not cached
+     * @return cached values, which must not be changed
+     */
+    public double[][] get(Object algorithm, int form, double[][] matrices, Supplier<double[][]> compute) {
+        Key key = new Key(algorithm, form, matrices);
+        synchronized (this) {
+            double[][] values = entries.get(key);
+            if (values != null) {
+                hits++;
+                return values;
+            }
+            misses++;
+        }
+
+        double[][] values = compute.get();
+        if (values == null) {
+            return null;
+        }
+        double[][] copies = new double[matrices.length][];
+        for (int i = 0; i < matrices.length; i++) {
+            copies[i] = matrices[i].clone();
+        }
+        key = new Key(algorithm, form, copies, key.hash);
+
+        synchronized (this) {
+            double[][] previous = entries.put(key, values);
+            if (previous != null) {
+                size -= sizeOf(key.matrices) + sizeOf(previous);
+            }
+            size += sizeOf(key.matrices) + sizeOf(values);
+            Iterator<Map.Entry<Key, double[][]>> eldest = entries.entrySet().iterator();
+            while (size > maxSize && eldest.hasNext()) {
+                Map.Entry<Key, double[][]> entry = eldest.next();
+                size -= sizeOf(entry.getKey().matrices) + sizeOf(entry.getValue());
+                eldest.remove();
+                evictions++;
+            }
+        }
+        return values;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    public synchronized int getNumEntries() {
+        return entries.size();
+    }
+
+    /**
+     * @return number of doubles held in matrices and weights of all entries
+     */
+    public synchronized long getSize() {
+        return size;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        size = 0;
+    }
+
+    private static long sizeOf(double[][] arrays) {
+        long size = 0;
+        for (double[] array : arrays) {
+            size += array.length;
+        }
+        return size;
+    }
+
+    /**
+     * 64-bit hash of bits of all elements
+     */
+    static long hash(double[][] matrices) {
+        long hash = 0xCBF29CE484222325L;
+        for (double[] matrix : matrices) {
+            for (double value : matrix) {
+                hash = (hash ^ Double.doubleToLongBits(value)) * 0x9E3779B97F4A7C15L;
+                hash ^= hash >>> 32;
+            }
+            hash = (hash ^ matrix.length) * 0x9E3779B97F4A7C15L;
+        }
+        return hash;
+    }
+
+    private static class Key {
+        private final Object algorithm;
+        private final int form;
+        private final double[][] matrices;
+        private final long hash;
+
+        Key(Object algorithm, int form, double[][] matrices) {
+            this(algorithm, form, matrices, hash(matrices));
+        }
+
+        Key(Object algorithm, int form, double[][] matrices, long hash) {
+            this.algorithm = algorithm;
+            this.form = form;
+            this.matrices = matrices;
+            this.hash = hash;
+        }
+
+        @Override
+        public int hashCode() {
+            return (int) (hash ^ (hash >>> 32)) * 31 + algorithm.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return hash == other.hash && form == other.form && algorithm.equals(other.algorithm) &&
+                    Arrays.deepEquals(matrices, other.matrices);
+        }
+    }
+}
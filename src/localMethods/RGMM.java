@@ -15,32 +15,168 @@ public class RGMM implements LocalWeightsAlg {
 
     @Override
     public ArrayList computeLocal(SimpleMatrix pairwiseComparisons) {
-        // Compute weight by RGMM
+        // Compute weights and GCI by RGMM in log domain
         int n = pairwiseComparisons.numCols();
+        double[] weights = new double[n];
+        double gci = computeLocal(pairwiseComparisons.getMatrix().getData(), n, weights);
+
         SimpleMatrix local = new SimpleMatrix(n, 1);
-        local.set(1);
         for (int i = 0; i < n; i++) {
-            SimpleMatrix column = pairwiseComparisons.extractVector(false, i);
-            local = local.elementMult(column);
+            local.set(i, weights[i]);
+        }
+
+        // Return weights and GCI
+        ArrayList results = new ArrayList(2);
+        results.add(local);
+        results.add(gci);
+        return results;
+    }
+
+    /**
+     * Computes weights and GCI by RGMM from packed elements above diagonal, so that only n(n-1)/2
+     * logarithms are computed
+     */
+    @Override
+    public ArrayList computeLocal(ReciprocalMatrix pairwiseComparisons) {
+        final int n = pairwiseComparisons.getSize();
+        final double[] upper = pairwiseComparisons.getUpperTriangle();
+        double[] logs = new double[upper.length];
+        double[] weights = new double[n];
+
+        // r_i = 1/n * (sum_j>i(log(a_ij)) - sum_j<i(log(a_ji)))
+        int k = 0;
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                logs[k] = Math.log(upper[k]);
+                weights[i] += logs[k];
+                weights[j] -= logs[k];
+                k++;
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            weights[i] /= n;
         }
-        local = local.elementPower(1. / n);
-        local = local.divide(local.elementSum());
 
-        // Compute GCI
-        SimpleMatrix e = new SimpleMatrix(n, n);
         double sum = 0;
+        k = 0;
         for (int i = 0; i < n; i++) {
             for (int j = i + 1; j < n; j++) {
-                e.set(i, j, pairwiseComparisons.get(i, j) * local.get(j) / local.get(i));
-                sum += Math.pow(Math.log(e.get(i, j)), 2);
+                double e = logs[k++] + weights[j] - weights[i];
+                sum += e * e;
             }
         }
         double gci = 2. / ((n - 1) * (n - 2)) * sum;
+        normaliseExp(weights, n);
 
-        // Return weights and GCI
+        SimpleMatrix local = new SimpleMatrix(n, 1);
+        for (int i = 0; i < n; i++) {
+            local.set(i, weights[i]);
+        }
         ArrayList results = new ArrayList(2);
         results.add(local);
         results.add(gci);
         return results;
     }
+
+    @Override
+    public double computeLocal(double[] pairwiseComparisons, int n, double[] weights, Workspace workspace) {
+        return computeLocal(pairwiseComparisons, n, weights);
+    }
+
+    /**
+     * Computes weights and GCI of matrices [from, to) of batch by RGMM in log domain
+     */
+    @Override
+    public void computeLocalBatch(double[] pairwiseComparisons, int n, int from, int to, double[] weights,
+                                  double[] consistencyIndices) {
+        for (int k = from; k < to; k++) {
+            rowLogMeans(pairwiseComparisons, k * n * n, n, weights, k * n);
+            consistencyIndices[k] = geometricConsistencyIndex(pairwiseComparisons, k * n * n, n, weights, k * n);
+            normaliseExp(weights, k * n, n);
+        }
+    }
+
+    /**
+     * Computes weights and GCI by RGMM in log domain, so that product of row elements never overflows
+     * @param pairwiseComparisons n x n matrix of pair comparisons, stored by rows
+     * @param n dimension of matrix
+     * @param weights output vector of normalised weights of length n
+     * @return GCI
+     */
+    public static double computeLocal(double[] pairwiseComparisons, int n, double[] weights) {
+        rowLogMeans(pairwiseComparisons, 0, n, weights, 0);
+        double gci = geometricConsistencyIndex(pairwiseComparisons, 0, n, weights, 0);
+        normaliseExp(weights, 0, n);
+        return gci;
+    }
+
+    /**
+     * Computes weights by RGMM in log domain, without GCI
+     * @param pairwiseComparisons n x n matrix of pair comparisons, stored by rows
+     * @param n dimension of matrix
+     * @param weights output vector of normalised weights of length n
+     */
+    public static void computeWeights(double[] pairwiseComparisons, int n, double[] weights) {
+        computeWeights(pairwiseComparisons, 0, n, weights, 0);
+    }
+
+    /**
+     * Computes weights by RGMM of matrix starting at offset into weights starting at weightsOffset
+     */
+    static void computeWeights(double[] pairwiseComparisons, int offset, int n, double[] weights,
+                               int weightsOffset) {
+        rowLogMeans(pairwiseComparisons, offset, n, weights, weightsOffset);
+        normaliseExp(weights, weightsOffset, n);
+    }
+
+    /**
+     * r_i = 1/n * sum_j(log(a_ij))
+     */
+    private static void rowLogMeans(double[] a, int offset, int n, double[] r, int rOffset) {
+        for (int i = 0; i < n; i++) {
+            double logSum = 0;
+            int row = offset + i * n;
+            for (int j = 0; j < n; j++) {
+                logSum += Math.log(a[row + j]);
+            }
+            r[rOffset + i] = logSum / n;
+        }
+    }
+
+    /**
+     * GCI = 2 / ((n-1)(n-2)) * sum_i<j(log(a_ij * w_j / w_i)^2), where log(w_j / w_i) = r_j - r_i
+     */
+    private static double geometricConsistencyIndex(double[] a, int offset, int n, double[] r, int rOffset) {
+        double sum = 0;
+        for (int i = 0; i < n; i++) {
+            int row = offset + i * n;
+            for (int j = i + 1; j < n; j++) {
+                double e = Math.log(a[row + j]) + r[rOffset + j] - r[rOffset + i];
+                sum += e * e;
+            }
+        }
+        return 2. / ((n - 1) * (n - 2)) * sum;
+    }
+
+    /**
+     * w_i = exp(r_i) / sum_j(exp(r_j)), shifted by max(r) to stay in range of double
+     */
+    static void normaliseExp(double[] r, int n) {
+        normaliseExp(r, 0, n);
+    }
+
+    private static void normaliseExp(double[] r, int offset, int n) {
+        double max = Double.NEGATIVE_INFINITY;
+        for (int i = offset; i < offset + n; i++) {
+            max = Math.max(max, r[i]);
+        }
+        double sum = 0;
+        for (int i = offset; i < offset + n; i++) {
+            r[i] = Math.exp(r[i] - max);
+            sum += r[i];
+        }
+        for (int i = offset; i < offset + n; i++) {
+            r[i] /= sum;
+        }
+    }
 }
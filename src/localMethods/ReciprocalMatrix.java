@@ -0,0 +1,120 @@
+package localMethods;
+
+import org.ejml.simple.SimpleMatrix;
+
+import java.util.Arrays;
+
+/**
+ * Positive reciprocal matrix of pair comparisons, which keeps only elements above diagonal.
+ * a_ii = 1 and a_ji = 1 / a_ij hold by construction.
+ * Elements a_ij, i < j, are packed by rows: a_01, a_02, ..., a_0(n-1), a_12, ...
+ */
+public class ReciprocalMatrix {
+    private final int n;
+    private final double[] upper;
+
+    /**
+     * Creates matrix with all elements equal to 1
+     * @param n dimension of matrix
+     */
+    public ReciprocalMatrix(int n) {
+        if (n <= 0) throw new IllegalArgumentException("Dimension should be greater than zero");
+        this.n = n;
+        this.upper = new double[n * (n - 1) / 2];
+        Arrays.fill(upper, 1);
+    }
+
+    /**
+     * Creates matrix from elements above diagonal of dense matrix, elements below diagonal are ignored
+     * @param pairwiseComparisons square matrix
+     */
+    public ReciprocalMatrix(SimpleMatrix pairwiseComparisons) {
+        if (pairwiseComparisons.numCols() != pairwiseComparisons.numRows()) {
+            throw new IndexOutOfBoundsException("Matrix has incorrect dimensions");
+        }
+        this.n = pairwiseComparisons.numCols();
+        this.upper = new double[n * (n - 1) / 2];
+        double[] a = pairwiseComparisons.getMatrix().getData();
+        int k = 0;
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                set(k++, a[i * n + j]);
+            }
+        }
+    }
+
+    public int getSize() {
+        return n;
+    }
+
+    public double get(int i, int j) {
+        checkIndex(i, j);
+        if (i < j) {
+            return upper[index(i, j)];
+        }
+        if (i > j) {
+            return 1 / upper[index(j, i)];
+        }
+        return 1;
+    }
+
+    /**
+     * Sets a_ij = value and a_ji = 1 / value
+     */
+    public void set(int i, int j, double value) {
+        checkIndex(i, j);
+        if (i == j) {
+            throw new IllegalArgumentException("Diagonal elements are equal to 1");
+        }
+        if (i < j) {
+            set(index(i, j), value);
+        } else {
+            set(index(j, i), 1 / value);
+        }
+    }
+
+    private void set(int k, double value) {
+        if (!(value > 0)) {
+            throw new IllegalArgumentException("Comparison should be greater than zero");
+        }
+        upper[k] = value;
+    }
+
+    /**
+     * Returns packed elements above diagonal without copying, for algorithms that read matrix directly
+     */
+    public double[] getUpperTriangle() {
+        return upper;
+    }
+
+    /**
+     * Index of a_ij, i < j, in packed elements
+     */
+    public int index(int i, int j) {
+        return i * n - i * (i + 1) / 2 + (j - i - 1);
+    }
+
+    /**
+     * @return new dense matrix
+     */
+    public SimpleMatrix toSimpleMatrix() {
+        SimpleMatrix matrix = new SimpleMatrix(n, n);
+        double[] a = matrix.getMatrix().getData();
+        int k = 0;
+        for (int i = 0; i < n; i++) {
+            a[i * n + i] = 1;
+            for (int j = i + 1; j < n; j++) {
+                a[i * n + j] = upper[k];
+                a[j * n + i] = 1 / upper[k];
+                k++;
+            }
+        }
+        return matrix;
+    }
+
+    private void checkIndex(int i, int j) {
+        if (i < 0 || i >= n || j < 0 || j >= n) {
+            throw new IndexOutOfBoundsException("Incorrect element index");
+        }
+    }
+}
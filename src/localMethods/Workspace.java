@@ -0,0 +1,53 @@
+package localMethods;
+
+/**
+ * Reusable buffers for computing weights into caller-supplied arrays. Buffers grow on demand and are kept
+ * between calls, so that repeated computations of the same sizes do not allocate. Workspace is not
+ * thread-safe, each thread should use its own instance, e.g. Workspace.forCurrentThread().
+ * Contents of buffers are undefined when they are returned, algorithms must not keep them between calls.
+ */
+public class Workspace {
+    private static final ThreadLocal<Workspace> CURRENT = ThreadLocal.withInitial(Workspace::new);
+
+    private double[][] doubles = new double[0][];
+    private int[][] ints = new int[0][];
+
+    /**
+     * Returns workspace of the calling thread
+     */
+    public static Workspace forCurrentThread() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Returns buffer of at least given length
+     * @param slot index of buffer, buffers of different slots can be used at the same time
+     */
+    public double[] getDoubles(int slot, int length) {
+        if (slot >= doubles.length) {
+            double[][] grown = new double[slot + 1][];
+            System.arraycopy(doubles, 0, grown, 0, doubles.length);
+            doubles = grown;
+        }
+        if (doubles[slot] == null || doubles[slot].length < length) {
+            doubles[slot] = new double[length];
+        }
+        return doubles[slot];
+    }
+
+    /**
+     * Returns buffer of at least given length
+     * @param slot index of buffer, buffers of different slots can be used at the same time
+     */
+    public int[] getInts(int slot, int length) {
+        if (slot >= ints.length) {
+            int[][] grown = new int[slot + 1][];
+            System.arraycopy(ints, 0, grown, 0, ints.length);
+            ints = grown;
+        }
+        if (ints[slot] == null || ints[slot].length < length) {
+            ints[slot] = new int[length];
+        }
+        return ints[slot];
+    }
+}
@@ -0,0 +1,371 @@
+package storage;
+
+import fuzzyGlobal.FuzzyGlobalWeightsAlg;
+import fuzzyGlobal.IntervalVector;
+import fuzzyLocal.TriangularFuzzyVector;
+import fuzzyRanging.ArrayIndexSorter;
+import fuzzyRanging.DegreeOfPreference;
+import globalMethods.DistributedSynthesis;
+import globalMethods.GlobalWeightsAlg;
+import globalMethods.MultiplicativeSynthesis;
+import localMethods.Workspace;
+import org.ejml.simple.SimpleMatrix;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+
+/**
+ * Storage of the alternative (last) layer of hierarchy outside of Java heap, without Node per alternative.
+ * Local weights of alternatives according to each criterion, global weights and fuzzy bounds are kept
+ * in columns of doubles, either in direct buffers or in regions of memory-mapped file.
+ * File layout (native byte order): local weights columns, global weights, fuzzy local L, M, U columns
+ * of each criterion, fuzzy global L and U; columns have numAlternatives elements.
+ */
+public class AlternativeLayer implements Closeable {
+    private static final int W_L = 0;
+    private static final int W_U = 1;
+    private static final int W_LOCAL_U = 2;
+
+    /**
+     * Number of alternatives passed to global weights kernels at once, large enough for their parallel paths
+     */
+    private static final int BLOCK_SIZE = 1 << 16;
+    /**
+     * Number of alternatives passed to fuzzy global weights algorithm at once
+     */
+    private static final int FUZZY_BLOCK_SIZE = 4096;
+
+    private final int numAlternatives;
+    private final int numCriteria;
+    private final FileChannel channel;
+
+    /**
+     * Columns allocated on first access: localWeights[criterion], fuzzyLocalWeights[fuzzyIndex][criterion],
+     * fuzzyGlobalWeights[bound]
+     */
+    private final DoubleBuffer[] localWeights;
+    private DoubleBuffer globalWeights;
+    private final DoubleBuffer[][] fuzzyLocalWeights;
+    private final DoubleBuffer[] fuzzyGlobalWeights = new DoubleBuffer[2];
+
+    private AlternativeLayer(int numAlternatives, int numCriteria, FileChannel channel) {
+        if (numAlternatives <= 0 || numCriteria <= 0) {
+            throw new IllegalArgumentException("Number of elements should be greater than zero");
+        }
+        if (numAlternatives > Integer.MAX_VALUE / 8) {
+            throw new IllegalArgumentException("Column of alternatives should be smaller than 2 GB");
+        }
+        this.numAlternatives = numAlternatives;
+        this.numCriteria = numCriteria;
+        this.channel = channel;
+        this.localWeights = new DoubleBuffer[numCriteria];
+        this.fuzzyLocalWeights = new DoubleBuffer[3][numCriteria];
+    }
+
+    /**
+     * Creates layer in direct (off-heap) buffers, columns are allocated on first access
+     */
+    public static AlternativeLayer allocateDirect(int numAlternatives, int numCriteria) {
+        return new AlternativeLayer(numAlternatives, numCriteria, null);
+    }
+
+    /**
+     * Creates or opens layer in memory-mapped file, existing columns of file are kept
+     */
+    public static AlternativeLayer map(Path file, int numAlternatives, int numCriteria) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        return new AlternativeLayer(numAlternatives, numCriteria, channel);
+    }
+
+    public int getNumAlternatives() {
+        return numAlternatives;
+    }
+
+    public int getNumCriteria() {
+        return numCriteria;
+    }
+
+    /**
+     * Returns writable view of local weights of all alternatives according to criterion
+     */
+    public DoubleBuffer getLocalWeights(int criterion) {
+        checkCriterion(criterion);
+        if (localWeights[criterion] == null) {
+            localWeights[criterion] = column(criterion);
+        }
+        return localWeights[criterion].duplicate();
+    }
+
+    public void setLocalWeights(int criterion, SimpleMatrix weights) {
+        checkLength(weights);
+        getLocalWeights(criterion).put(weights.getMatrix().getData(), 0, numAlternatives);
+    }
+
+    /**
+     * Returns writable view of fuzzy local weights of all alternatives according to criterion
+     * @param fuzzyIndex 0 - L, 1 - M, 2 - U
+     */
+    public DoubleBuffer getFuzzyLocalWeights(int criterion, int fuzzyIndex) {
+        checkCriterion(criterion);
+        if (fuzzyIndex < 0 || fuzzyIndex > 2) {
+            throw new IndexOutOfBoundsException("Incorrect fuzzy index");
+        }
+        if (fuzzyLocalWeights[fuzzyIndex][criterion] == null) {
+            fuzzyLocalWeights[fuzzyIndex][criterion] = column(numCriteria + 1 + fuzzyIndex * numCriteria + criterion);
+        }
+        return fuzzyLocalWeights[fuzzyIndex][criterion].duplicate();
+    }
+
+    /**
+     * @param weights {wL, wM, wU}
+     */
+    public void setFuzzyLocalWeights(int criterion, ArrayList<SimpleMatrix> weights) {
+        for (int k = 0; k < 3; k++) {
+            checkLength(weights.get(k));
+            getFuzzyLocalWeights(criterion, k).put(weights.get(k).getMatrix().getData(), 0, numAlternatives);
+        }
+    }
+
+    public void setFuzzyLocalWeights(int criterion, TriangularFuzzyVector weights) {
+        if (weights.getSize() != numAlternatives) {
+            throw new IndexOutOfBoundsException("Vector has incorrect dimensions");
+        }
+        for (int k = 0; k < 3; k++) {
+            getFuzzyLocalWeights(criterion, k).put(weights.getBounds()[k], 0, numAlternatives);
+        }
+    }
+
+    /**
+     * Computes global weights of alternatives. Local weights are copied by blocks of rows, so that distributed
+     * and multiplicative synthesis compute unnormalised weights of each block by their parallel kernels and
+     * normalise them over all alternatives. Other algorithms get one matrix of all local weights.
+     * @param weightsCriteria global weights of criteria
+     */
+    public void computeGlobalWeights(SimpleMatrix weightsCriteria, GlobalWeightsAlg globalWeightsAlg) {
+        if (weightsCriteria.getNumElements() != numCriteria) {
+            throw new IndexOutOfBoundsException("Vector has incorrect dimensions");
+        }
+        final double[] criteria = weightsCriteria.getMatrix().getData();
+        final DoubleBuffer[] columns = new DoubleBuffer[numCriteria];
+        for (int j = 0; j < numCriteria; j++) {
+            columns[j] = getLocalWeights(j);
+        }
+        DoubleBuffer global = getGlobalWeights();
+
+        if (!(globalWeightsAlg instanceof DistributedSynthesis || globalWeightsAlg instanceof MultiplicativeSynthesis)) {
+            if ((long) numAlternatives * numCriteria > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException(globalWeightsAlg.getName() +
+                        " does not support local weights larger than array");
+            }
+            double[] elements = new double[numAlternatives * numCriteria];
+            double[] weights = new double[numAlternatives];
+            copyRows(columns, 0, numAlternatives, elements);
+            globalWeightsAlg.computeGlobal(criteria, numCriteria, elements, numAlternatives, weights,
+                    Workspace.forCurrentThread());
+            global.put(weights, 0, numAlternatives);
+            return;
+        }
+
+        final int blockSize = Math.min(BLOCK_SIZE, numAlternatives);
+        double[] block = new double[blockSize * numCriteria];
+        double[] weights = new double[blockSize];
+        double sum = 0;
+        for (int from = 0; from < numAlternatives; from += blockSize) {
+            final int numRows = Math.min(blockSize, numAlternatives - from);
+            copyRows(columns, from, numRows, block);
+            if (globalWeightsAlg instanceof DistributedSynthesis) {
+                sum += ((DistributedSynthesis) globalWeightsAlg).computeProducts(criteria, numCriteria, block,
+                        numRows, weights);
+            } else {
+                MultiplicativeSynthesis.computeLogs(criteria, numCriteria, block, numRows, weights);
+            }
+            global.position(from);
+            global.put(weights, 0, numRows);
+        }
+
+        if (globalWeightsAlg instanceof DistributedSynthesis) {
+            for (int i = 0; i < numAlternatives; i++) {
+                global.put(i, global.get(i) / sum);
+            }
+        } else {
+            MultiplicativeSynthesis.normaliseLogs(global, numAlternatives);
+        }
+    }
+
+    /**
+     * Computes fuzzy global weights of alternatives by blocks of alternatives.
+     * Algorithm should compute weights of each alternative independently of others, as fuzzy distributed
+     * synthesis does.
+     * @param weightsCriteria interval global weights of criteria
+     */
+    public void computeFuzzyGlobalWeights(IntervalVector weightsCriteria, FuzzyGlobalWeightsAlg fuzzyGlobalWeightsAlg) {
+        if (weightsCriteria.getSize() != numCriteria) {
+            throw new IndexOutOfBoundsException("Vector has incorrect dimensions");
+        }
+        final DoubleBuffer[] columnsL = new DoubleBuffer[numCriteria];
+        final DoubleBuffer[] columnsU = new DoubleBuffer[numCriteria];
+        for (int j = 0; j < numCriteria; j++) {
+            columnsL[j] = getFuzzyLocalWeights(j, 0);
+            columnsU[j] = getFuzzyLocalWeights(j, W_LOCAL_U);
+        }
+        final int blockSize = Math.min(FUZZY_BLOCK_SIZE, numAlternatives);
+        double[][] block = new double[2][blockSize * numCriteria];
+        double[][] fuzzyGlobal = new double[2][blockSize];
+        Workspace workspace = new Workspace();
+
+        DoubleBuffer globalL = getFuzzyGlobalWeights(W_L);
+        DoubleBuffer globalU = getFuzzyGlobalWeights(W_U);
+        for (int from = 0; from < numAlternatives; from += blockSize) {
+            final int numRows = Math.min(blockSize, numAlternatives - from);
+            copyRows(columnsL, from, numRows, block[W_L]);
+            copyRows(columnsU, from, numRows, block[W_U]);
+            fuzzyGlobalWeightsAlg.computeFuzzyGlobal(weightsCriteria.getBounds(), numCriteria, block, numRows,
+                    fuzzyGlobal, workspace);
+            globalL.position(from);
+            globalL.put(fuzzyGlobal[W_L], 0, numRows);
+            globalU.position(from);
+            globalU.put(fuzzyGlobal[W_U], 0, numRows);
+        }
+    }
+
+    /**
+     * Copies rows [from, from + numRows) of columns into matrix stored by rows
+     */
+    private static void copyRows(DoubleBuffer[] columns, int from, int numRows, double[] rows) {
+        final int numCols = columns.length;
+        for (int j = 0; j < numCols; j++) {
+            DoubleBuffer column = columns[j];
+            for (int i = 0; i < numRows; i++) {
+                rows[i * numCols + j] = column.get(from + i);
+            }
+        }
+    }
+
+    /**
+     * Returns writable view of global weights of all alternatives
+     */
+    public DoubleBuffer getGlobalWeights() {
+        if (globalWeights == null) {
+            globalWeights = column(numCriteria);
+        }
+        return globalWeights.duplicate();
+    }
+
+    /**
+     * Returns writable view of fuzzy global weights of all alternatives
+     * @param bound 0 - L, 1 - U
+     */
+    public DoubleBuffer getFuzzyGlobalWeights(int bound) {
+        if (bound < 0 || bound > 1) {
+            throw new IndexOutOfBoundsException("Incorrect fuzzy index");
+        }
+        if (fuzzyGlobalWeights[bound] == null) {
+            fuzzyGlobalWeights[bound] = column(4 * numCriteria + 1 + bound);
+        }
+        return fuzzyGlobalWeights[bound].duplicate();
+    }
+
+    public double getGlobalWeight(int alternative) {
+        checkAlternative(alternative);
+        return getGlobalWeights().get(alternative);
+    }
+
+    /**
+     * @param bound 0 - L, 1 - U
+     */
+    public double getFuzzyGlobalWeight(int alternative, int bound) {
+        checkAlternative(alternative);
+        return getFuzzyGlobalWeights(bound).get(alternative);
+    }
+
+    /**
+     * Copies fuzzy global weights of all alternatives into heap vector
+     */
+    public IntervalVector getLayerFuzzyGlobalWeights() {
+        return new IntervalVector(toArray(getFuzzyGlobalWeights(W_L)), toArray(getFuzzyGlobalWeights(W_U)));
+    }
+
+    /**
+     * Returns indices of alternatives in descending order of global weights
+     */
+    public int[] ranking() {
+        return ArrayIndexSorter.sortDescending(toArray(getGlobalWeights()));
+    }
+
+    /**
+     * Returns indices of k best alternatives by degree of preference of fuzzy global weights
+     */
+    public int[] fuzzyRanking(int k) {
+        return new DegreeOfPreference().fuzzyRanging(toArray(getFuzzyGlobalWeights(W_L)),
+                toArray(getFuzzyGlobalWeights(W_U)), k);
+    }
+
+    /**
+     * Copies column into heap vector, e.g. for Hierarchy.getLayerGlobalWeights
+     */
+    public static SimpleMatrix toSimpleMatrix(DoubleBuffer column) {
+        SimpleMatrix vector = new SimpleMatrix(column.remaining(), 1);
+        column.duplicate().get(vector.getMatrix().getData());
+        return vector;
+    }
+
+    private static double[] toArray(DoubleBuffer column) {
+        double[] array = new double[column.remaining()];
+        column.duplicate().get(array);
+        return array;
+    }
+
+    /**
+     * Allocates column with given index of file layout
+     */
+    private DoubleBuffer column(int index) {
+        final int columnBytes = 8 * numAlternatives;
+        if (channel == null) {
+            return ByteBuffer.allocateDirect(columnBytes).order(ByteOrder.nativeOrder()).asDoubleBuffer();
+        }
+        try {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, (long) index * columnBytes,
+                    columnBytes);
+            return buffer.order(ByteOrder.nativeOrder()).asDoubleBuffer();
+        } catch (IOException e) {
+            throw new IllegalStateException("Can not map column " + index + " of alternative layer", e);
+        }
+    }
+
+    private void checkCriterion(int criterion) {
+        if (criterion < 0 || criterion >= numCriteria) {
+            throw new IndexOutOfBoundsException("Incorrect criterion index");
+        }
+    }
+
+    private void checkAlternative(int alternative) {
+        if (alternative < 0 || alternative >= numAlternatives) {
+            throw new IndexOutOfBoundsException("Incorrect element index");
+        }
+    }
+
+    private void checkLength(SimpleMatrix weights) {
+        if (weights.getNumElements() != numAlternatives) {
+            throw new IndexOutOfBoundsException("Vector has incorrect dimensions");
+        }
+    }
+
+    /**
+     * Closes file of memory-mapped layer, direct buffers are released by garbage collector
+     */
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package storage;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Writes results in binary format through DataOutputStream (big-endian):
+ * int magic, then records: UTF kind, UTF local, UTF global, UTF ranging (empty if not applicable),
+ * int layer, int element, int length, double[length] values (indices of rankings are written as doubles).
+ */
+public class BinaryResultsWriter extends ResultsWriter {
+    static final int MAGIC = 0x41485252;
+
+    private final DataOutputStream output;
+
+    public BinaryResultsWriter(Path file) throws IOException {
+        output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)));
+        output.writeInt(MAGIC);
+    }
+
+    @Override
+    protected void beginRecord(String kind, String localAlg, String globalAlg, String rangingAlg,
+                               int layer, int element, int length) throws IOException {
+        output.writeUTF(kind);
+        output.writeUTF(localAlg == null ? "" : localAlg);
+        output.writeUTF(globalAlg == null ? "" : globalAlg);
+        output.writeUTF(rangingAlg == null ? "" : rangingAlg);
+        output.writeInt(layer);
+        output.writeInt(element);
+        output.writeInt(length);
+    }
+
+    @Override
+    protected void writeValue(double value) throws IOException {
+        output.writeDouble(value);
+    }
+
+    @Override
+    protected void writeIndex(int index) throws IOException {
+        output.writeDouble(index);
+    }
+
+    @Override
+    protected void endRecord() {
+    }
+
+    @Override
+    public void close() throws IOException {
+        output.close();
+    }
+}
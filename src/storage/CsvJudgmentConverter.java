@@ -0,0 +1,47 @@
+package storage;
+
+import org.ejml.simple.SimpleMatrix;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Converts CSV matrices of pair comparisons into binary judgment store.
+ * Crisp matrices are read from files full_pC{layer - 1}{element}g.csv,
+ * fuzzy matrices - from files full_{L|M|U}full_pC{layer - 1}{element}g.csv. Absent files are skipped.
+ */
+public class CsvJudgmentConverter {
+    private static final String[] FUZZY_PREFIXES = {"L", "M", "U"};
+
+    /**
+     * @param path directory of CSV files, ending with separator
+     * @param layerSizes number of elements on each layer, starting with goal (layerSizes[0] = 1)
+     * @param output path of store file
+     * @return number of converted matrices
+     */
+    public static int convert(String path, int[] layerSizes, Path output) throws IOException {
+        int numMatrices = 0;
+        try (JudgmentStoreWriter writer = new JudgmentStoreWriter(output, layerSizes)) {
+            for (int i = 1; i < layerSizes.length; i++) {
+                for (int j = 0; j < layerSizes[i - 1]; j++) {
+                    String fileName = path + "full_pC" + Integer.toString(i - 1) + Integer.toString(j) + "g.csv";
+                    if (new File(fileName).exists()) {
+                        writer.setPairComparisonsMatrix(i, j, new SimpleMatrix().loadCSV(fileName));
+                        numMatrices++;
+                    }
+                    for (int k = 0; k < 3; k++) {
+                        fileName = path + "full_" + FUZZY_PREFIXES[k] + "full_pC" + Integer.toString(i - 1) +
+                                Integer.toString(j) + "g.csv";
+                        if (new File(fileName).exists()) {
+                            writer.setFuzzyPairComparisonsMatrix(i, j, k, new SimpleMatrix().loadCSV(fileName));
+                            numMatrices++;
+                        }
+                    }
+                }
+            }
+            writer.commit();
+        }
+        return numMatrices;
+    }
+}
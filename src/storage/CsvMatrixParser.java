@@ -0,0 +1,200 @@
+package storage;
+
+import org.ejml.simple.SimpleMatrix;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Parser of matrices in EJML CSV format: header "numRows numCols real" followed by elements stored by rows,
+ * separated by spaces, tabs, commas or line breaks. Numbers are parsed directly from bytes of file,
+ * numbers which can not be converted exactly by the fast path are passed to Double.parseDouble,
+ * so that results are equal to those of SimpleMatrix.loadCSV.
+ */
+public class CsvMatrixParser {
+    /**
+     * Exact powers of ten representable by double
+     */
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+    private final Path file;
+    private final byte[] bytes;
+    private int position;
+    private int line = 1;
+
+    private CsvMatrixParser(Path file, byte[] bytes) {
+        this.file = file;
+        this.bytes = bytes;
+    }
+
+    /**
+     * Reads matrix from file
+     * @throws IOException if file can not be read or is malformed, message contains path of file
+     */
+    public static SimpleMatrix parse(Path file) throws IOException {
+        return new CsvMatrixParser(file, Files.readAllBytes(file)).parse();
+    }
+
+    private SimpleMatrix parse() throws IOException {
+        final int numRows = nextInt();
+        final int numCols = nextInt();
+        String type = nextToken();
+        if (!type.equalsIgnoreCase("real")) {
+            throw malformed("only real matrices are supported");
+        }
+        if (numRows < 0 || numCols < 0) {
+            throw malformed("incorrect dimensions " + numRows + " x " + numCols);
+        }
+
+        SimpleMatrix matrix = new SimpleMatrix(numRows, numCols);
+        double[] data = matrix.getMatrix().getData();
+        for (int i = 0; i < data.length; i++) {
+            data[i] = nextDouble();
+        }
+        skipSeparators();
+        if (position < bytes.length) {
+            throw malformed("unexpected data after " + numRows + " x " + numCols + " elements");
+        }
+        return matrix;
+    }
+
+    private int nextInt() throws IOException {
+        String token = nextToken();
+        try {
+            return Integer.parseInt(token);
+        } catch (NumberFormatException e) {
+            throw malformed("expected integer, found '" + token + "'");
+        }
+    }
+
+    private String nextToken() throws IOException {
+        skipSeparators();
+        final int start = position;
+        while (position < bytes.length && !isSeparator(bytes[position])) {
+            position++;
+        }
+        if (start == position) {
+            throw malformed("unexpected end of file");
+        }
+        return new String(bytes, start, position - start, StandardCharsets.US_ASCII);
+    }
+
+    private double nextDouble() throws IOException {
+        skipSeparators();
+        final int start = position;
+        if (position == bytes.length) {
+            throw malformed("unexpected end of file");
+        }
+
+        boolean negative = false;
+        if (bytes[position] == '-' || bytes[position] == '+') {
+            negative = bytes[position] == '-';
+            position++;
+        }
+
+        // Decimal mantissa and exponent of number
+        long mantissa = 0;
+        int numDigits = 0;
+        int exponent = 0;
+        boolean exact = true;
+        while (position < bytes.length && isDigit(bytes[position])) {
+            if (mantissa < MAX_EXACT_MANTISSA) {
+                mantissa = mantissa * 10 + (bytes[position] - '0');
+            } else {
+                exact = false;
+            }
+            numDigits++;
+            position++;
+        }
+        if (position < bytes.length && bytes[position] == '.') {
+            position++;
+            while (position < bytes.length && isDigit(bytes[position])) {
+                if (mantissa < MAX_EXACT_MANTISSA) {
+                    mantissa = mantissa * 10 + (bytes[position] - '0');
+                    exponent--;
+                } else if (bytes[position] != '0') {
+                    exact = false;
+                }
+                numDigits++;
+                position++;
+            }
+        }
+        if (position < bytes.length && (bytes[position] == 'e' || bytes[position] == 'E')) {
+            position++;
+            boolean negativeExponent = false;
+            if (position < bytes.length && (bytes[position] == '-' || bytes[position] == '+')) {
+                negativeExponent = bytes[position] == '-';
+                position++;
+            }
+            int value = 0;
+            int numExponentDigits = 0;
+            while (position < bytes.length && isDigit(bytes[position])) {
+                value = Math.min(value * 10 + (bytes[position] - '0'), 100000);
+                numExponentDigits++;
+                position++;
+            }
+            if (numExponentDigits == 0) {
+                numDigits = 0;
+            }
+            exponent += negativeExponent ? -value : value;
+        }
+
+        if (position < bytes.length && !isSeparator(bytes[position])) {
+            // Not a plain decimal number, e.g. NaN or Infinity
+            while (position < bytes.length && !isSeparator(bytes[position])) {
+                position++;
+            }
+            return parseSlow(start);
+        }
+        if (numDigits == 0) {
+            throw malformed("expected number, found '" + token(start) + "'");
+        }
+        if (!exact || mantissa > MAX_EXACT_MANTISSA || exponent < -22 || exponent > 22) {
+            return parseSlow(start);
+        }
+
+        // Both mantissa and power of ten are exact, so one operation gives correctly rounded result
+        double value = exponent < 0 ? mantissa / POWERS_OF_TEN[-exponent] : mantissa * POWERS_OF_TEN[exponent];
+        return negative ? -value : value;
+    }
+
+    private double parseSlow(int start) throws IOException {
+        String token = token(start);
+        try {
+            return Double.parseDouble(token);
+        } catch (NumberFormatException e) {
+            throw malformed("expected number, found '" + token + "'");
+        }
+    }
+
+    private String token(int start) {
+        return new String(bytes, start, position - start, StandardCharsets.US_ASCII);
+    }
+
+    private void skipSeparators() {
+        while (position < bytes.length && isSeparator(bytes[position])) {
+            if (bytes[position] == '\n') {
+                line++;
+            }
+            position++;
+        }
+    }
+
+    private IOException malformed(String message) {
+        return new IOException(file + ":" + line + ": " + message);
+    }
+
+    private static boolean isSeparator(byte b) {
+        return b == ' ' || b == ',' || b == '\t' || b == '\n' || b == '\r';
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+}
@@ -0,0 +1,75 @@
+package storage;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Writes results as CSV with one value per line: kind,local,global,ranging,layer,element,index,value.
+ * Doubles are written by Double.toString, so they are parsed back exactly.
+ */
+public class CsvResultsWriter extends ResultsWriter {
+    private final BufferedWriter writer;
+
+    /**
+     * Common fields of all lines of current record, ending with comma
+     */
+    private String prefix;
+    private int index;
+
+    public CsvResultsWriter(Path file) throws IOException {
+        writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+        writer.write("kind,local,global,ranging,layer,element,index,value");
+        writer.newLine();
+    }
+
+    @Override
+    protected void beginRecord(String kind, String localAlg, String globalAlg, String rangingAlg,
+                               int layer, int element, int length) throws IOException {
+        prefix = kind + ',' + quote(localAlg) + ',' + quote(globalAlg) + ',' + quote(rangingAlg) + ',' +
+                layer + ',' + element + ',';
+        index = 0;
+    }
+
+    @Override
+    protected void writeValue(double value) throws IOException {
+        writer.write(prefix);
+        writer.write(Integer.toString(index++));
+        writer.write(',');
+        writer.write(Double.toString(value));
+        writer.newLine();
+    }
+
+    @Override
+    protected void writeIndex(int value) throws IOException {
+        writer.write(prefix);
+        writer.write(Integer.toString(index++));
+        writer.write(',');
+        writer.write(Integer.toString(value));
+        writer.newLine();
+    }
+
+    @Override
+    protected void endRecord() {
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+
+    /**
+     * Quotes field if it contains comma, quote or line break, null is written as empty field
+     */
+    private static String quote(String field) {
+        if (field == null) {
+            return "";
+        }
+        if (field.indexOf(',') < 0 && field.indexOf('"') < 0 && field.indexOf('\n') < 0 && field.indexOf('\r') < 0) {
+            return field;
+        }
+        return '"' + field.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,98 @@
+package storage;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Writes results as JSON Lines, one object per record:
+ * {"kind":"global","local":"...","global":"...","layer":3,"element":-1,"values":[...]}.
+ * Names of algorithms, which are not applicable, are omitted. Non-finite values are written as strings "NaN", "Infinity" and "-Infinity",
+ * as Double.toString gives them, so all values are kept.
+ */
+public class JsonLinesResultsWriter extends ResultsWriter {
+    private final BufferedWriter writer;
+    private boolean firstValue;
+
+    public JsonLinesResultsWriter(Path file) throws IOException {
+        writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    protected void beginRecord(String kind, String localAlg, String globalAlg, String rangingAlg,
+                               int layer, int element, int length) throws IOException {
+        writer.write("{\"kind\":");
+        writeString(kind);
+        writeField("local", localAlg);
+        writeField("global", globalAlg);
+        writeField("ranging", rangingAlg);
+        writer.write(",\"layer\":");
+        writer.write(Integer.toString(layer));
+        writer.write(",\"element\":");
+        writer.write(Integer.toString(element));
+        writer.write(",\"values\":[");
+        firstValue = true;
+    }
+
+    @Override
+    protected void writeValue(double value) throws IOException {
+        separate();
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            writeString(Double.toString(value));
+        } else {
+            writer.write(Double.toString(value));
+        }
+    }
+
+    @Override
+    protected void writeIndex(int index) throws IOException {
+        separate();
+        writer.write(Integer.toString(index));
+    }
+
+    @Override
+    protected void endRecord() throws IOException {
+        writer.write("]}");
+        writer.newLine();
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+
+    private void separate() throws IOException {
+        if (!firstValue) {
+            writer.write(',');
+        }
+        firstValue = false;
+    }
+
+    private void writeField(String name, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        writer.write(",\"");
+        writer.write(name);
+        writer.write("\":");
+        writeString(value);
+    }
+
+    private void writeString(String value) throws IOException {
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                writer.write('\\');
+                writer.write(c);
+            } else if (c < 0x20) {
+                writer.write(String.format("\\u%04x", (int) c));
+            } else {
+                writer.write(c);
+            }
+        }
+        writer.write('"');
+    }
+}
@@ -0,0 +1,217 @@
+package storage;
+
+import org.ejml.simple.SimpleMatrix;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Binary store of all matrices of pair comparisons of hierarchy, read through memory-mapped file.
+ * Matrices are read only when they are requested, file pages are loaded by OS on first access.
+ *
+ * Format (little-endian):
+ * int magic, int version, int numLayers, int[numLayers] layerSizes (layerSizes[0] = 1 for goal),
+ * long[numSlots] offsets of matrices (-1 if matrix is absent), padding to 8 bytes,
+ * matrices of doubles stored by rows.
+ * Each element of layers 0..numLayers-2 has 4 slots: fuzzy L, M, U and crisp matrix.
+ */
+public class JudgmentStore implements Closeable {
+    static final int MAGIC = 0x41485031;
+    static final int VERSION = 1;
+    static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    /**
+     * Slot of crisp matrix, slots 0, 1, 2 are fuzzy L, M, U matrices
+     */
+    static final int CRISP = 3;
+    private static final int SLOTS_PER_ELEMENT = 4;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer data;
+    private final int[] layerSizes;
+    private final int[] firstSlots;
+    private final long[] offsets;
+
+    private JudgmentStore(FileChannel channel) throws IOException {
+        this.channel = channel;
+        if (channel.size() > Integer.MAX_VALUE) {
+            throw new IOException("Store file is larger than 2 GB");
+        }
+        this.data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        data.order(BYTE_ORDER);
+
+        if (data.limit() < 12 || data.getInt(0) != MAGIC) {
+            throw new IOException("File is not a judgment store");
+        }
+        if (data.getInt(4) != VERSION) {
+            throw new IOException("Unsupported judgment store version " + data.getInt(4));
+        }
+        final int numLayers = data.getInt(8);
+        if (numLayers < 1 || 12 + 4L * numLayers > data.limit()) {
+            throw new IOException("Incorrect number of layers " + numLayers);
+        }
+        layerSizes = new int[numLayers];
+        for (int i = 0; i < numLayers; i++) {
+            layerSizes[i] = data.getInt(12 + 4 * i);
+            if (layerSizes[i] <= 0) {
+                throw new IOException("Incorrect number of elements on layer " + i);
+            }
+        }
+        firstSlots = firstSlots(layerSizes);
+        offsets = new long[firstSlots[numLayers - 1]];
+        if (dataOffset(numLayers, offsets.length) > data.limit()) {
+            throw new IOException("Index of judgment store is truncated");
+        }
+        for (int i = 0; i < offsets.length; i++) {
+            offsets[i] = data.getLong(12 + 4 * numLayers + 8 * i);
+        }
+    }
+
+    /**
+     * Opens store for reading
+     * @param file path of store file written by JudgmentStoreWriter
+     */
+    public static JudgmentStore open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            return new JudgmentStore(channel);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public int getNumLayers() {
+        return layerSizes.length;
+    }
+
+    public int getNumElementsPerLayer(int layer) {
+        return layerSizes[layer];
+    }
+
+    public boolean hasPairComparisonsMatrix(int layer, int element) {
+        checkElementLayer(layerSizes, layer, element);
+        return offsets[slot(firstSlots, layer, element, CRISP)] >= 0;
+    }
+
+    public boolean hasFuzzyPairComparisonsMatrix(int layer, int element, int fuzzyIndex) {
+        checkElementLayer(layerSizes, layer, element);
+        checkFuzzyIndex(fuzzyIndex);
+        return offsets[slot(firstSlots, layer, element, fuzzyIndex)] >= 0;
+    }
+
+    /**
+     * Reads crisp matrix of pair comparisons
+     * @param layer index of layer which matrix was built for. Goal has layer with index 0.
+     * @param element index of element according to which comparisons was conducted
+     * @return new matrix or null if matrix is absent
+     */
+    public SimpleMatrix getPairComparisonsMatrix(int layer, int element) throws IOException {
+        return readMatrix(layer, element, CRISP);
+    }
+
+    /**
+     * Reads fuzzy matrix of pair comparisons
+     * @param fuzzyIndex 0 - L, 1 - M, 2 - U
+     * @return new matrix or null if matrix is absent
+     */
+    public SimpleMatrix getFuzzyPairComparisonsMatrix(int layer, int element, int fuzzyIndex) throws IOException {
+        checkFuzzyIndex(fuzzyIndex);
+        return readMatrix(layer, element, fuzzyIndex);
+    }
+
+    /**
+     * Returns read-only view of mapped crisp matrix without copying, elements are stored by rows
+     * @return view or null if matrix is absent
+     */
+    public DoubleBuffer getPairComparisonsBuffer(int layer, int element) throws IOException {
+        return view(layer, element, CRISP);
+    }
+
+    /**
+     * Returns read-only view of mapped fuzzy matrix without copying, elements are stored by rows
+     * @param fuzzyIndex 0 - L, 1 - M, 2 - U
+     * @return view or null if matrix is absent
+     */
+    public DoubleBuffer getFuzzyPairComparisonsBuffer(int layer, int element, int fuzzyIndex) throws IOException {
+        checkFuzzyIndex(fuzzyIndex);
+        return view(layer, element, fuzzyIndex);
+    }
+
+    private SimpleMatrix readMatrix(int layer, int element, int kind) throws IOException {
+        DoubleBuffer view = view(layer, element, kind);
+        if (view == null) {
+            return null;
+        }
+        final int n = layerSizes[layer];
+        SimpleMatrix matrix = new SimpleMatrix(n, n);
+        view.get(matrix.getMatrix().getData());
+        return matrix;
+    }
+
+    private DoubleBuffer view(int layer, int element, int kind) throws IOException {
+        checkElementLayer(layerSizes, layer, element);
+        final long offset = offsets[slot(firstSlots, layer, element, kind)];
+        if (offset < 0) {
+            return null;
+        }
+        final int n = layerSizes[layer];
+        if (offset + 8L * n * n > data.limit()) {
+            throw new IOException("Matrix (" + layer + "," + element + ") is out of file bounds");
+        }
+        ByteBuffer duplicate = data.duplicate();
+        duplicate.position((int) offset);
+        duplicate.limit((int) offset + 8 * n * n);
+        return duplicate.slice().order(BYTE_ORDER).asDoubleBuffer();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * firstSlots[layer - 1] - index of the first slot of elements of layer - 1, last value is number of slots
+     */
+    static int[] firstSlots(int[] layerSizes) {
+        int[] firstSlots = new int[layerSizes.length];
+        for (int i = 1; i < layerSizes.length; i++) {
+            firstSlots[i] = firstSlots[i - 1] + SLOTS_PER_ELEMENT * layerSizes[i - 1];
+        }
+        return firstSlots;
+    }
+
+    static int slot(int[] firstSlots, int layer, int element, int kind) {
+        return firstSlots[layer - 1] + SLOTS_PER_ELEMENT * element + kind;
+    }
+
+    /**
+     * Offset of the first matrix, aligned to 8 bytes
+     */
+    static long dataOffset(int numLayers, int numSlots) {
+        long headerSize = 12 + 4L * numLayers + 8L * numSlots;
+        return (headerSize + 7) / 8 * 8;
+    }
+
+    static void checkElementLayer(int[] layerSizes, int layer, int element) {
+        if (layer <= 0 || layer >= layerSizes.length) {
+            throw new IndexOutOfBoundsException("Incorrect layer index");
+        }
+        if (element < 0 || element >= layerSizes[layer - 1]) {
+            throw new IndexOutOfBoundsException("Incorrect element index");
+        }
+    }
+
+    private static void checkFuzzyIndex(int fuzzyIndex) {
+        if (fuzzyIndex < 0 || fuzzyIndex > 2) {
+            throw new IndexOutOfBoundsException("Incorrect fuzzy index");
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package storage;
+
+import org.ejml.simple.SimpleMatrix;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Writes matrices of pair comparisons of hierarchy into binary judgment store.
+ * Matrices are appended to file as they are added, header and index are written by commit,
+ * so that memory usage does not depend on the number of matrices. File which was closed without
+ * commit, e.g. after exception, is deleted, so that truncated store can not be opened.
+ */
+public class JudgmentStoreWriter implements Closeable {
+    private final Path file;
+    private final FileChannel channel;
+    private final int[] layerSizes;
+    private final long[] offsets;
+    private final int[] firstSlots;
+    private final ByteBuffer buffer;
+    private long position;
+    private boolean committed;
+
+    /**
+     * Creates store file, existing file is overwritten
+     * @param file path of store file
+     * @param layerSizes number of elements on each layer, starting with goal (layerSizes[0] = 1)
+     */
+    public JudgmentStoreWriter(Path file, int[] layerSizes) throws IOException {
+        if (layerSizes.length < 1 || layerSizes[0] != 1) {
+            throw new IllegalArgumentException("First layer should contain only goal");
+        }
+        for (int size : layerSizes) {
+            if (size <= 0) throw new IllegalArgumentException("Number of elements should be greater than zero");
+        }
+        this.layerSizes = layerSizes.clone();
+        this.firstSlots = JudgmentStore.firstSlots(layerSizes);
+        this.offsets = new long[firstSlots[layerSizes.length - 1]];
+        Arrays.fill(offsets, -1);
+
+        int maxSize = 0;
+        for (int size : layerSizes) {
+            maxSize = Math.max(maxSize, size);
+        }
+        this.buffer = ByteBuffer.allocateDirect(8 * maxSize).order(JudgmentStore.BYTE_ORDER);
+
+        this.file = file;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        this.position = JudgmentStore.dataOffset(layerSizes.length, offsets.length);
+    }
+
+    /**
+     * Writes crisp matrix of pair comparisons
+     * @param layer index of layer which matrix was built for. Goal has layer with index 0.
+     * @param element index of element according to which comparisons was conducted
+     */
+    public void setPairComparisonsMatrix(int layer, int element, SimpleMatrix pairComparisons) throws IOException {
+        writeMatrix(layer, element, JudgmentStore.CRISP, pairComparisons);
+    }
+
+    /**
+     * Writes fuzzy matrix of pair comparisons
+     * @param fuzzyIndex 0 - L, 1 - M, 2 - U
+     */
+    public void setFuzzyPairComparisonsMatrix(int layer, int element, int fuzzyIndex, SimpleMatrix pairComparisons)
+            throws IOException {
+        if (fuzzyIndex < 0 || fuzzyIndex > 2) {
+            throw new IndexOutOfBoundsException("Incorrect fuzzy index");
+        }
+        writeMatrix(layer, element, fuzzyIndex, pairComparisons);
+    }
+
+    private void writeMatrix(int layer, int element, int kind, SimpleMatrix pairComparisons) throws IOException {
+        JudgmentStore.checkElementLayer(layerSizes, layer, element);
+        final int n = layerSizes[layer];
+        if (pairComparisons.numCols() != n || pairComparisons.numRows() != n) {
+            throw new IndexOutOfBoundsException("Matrix has incorrect dimensions");
+        }
+        final int slot = JudgmentStore.slot(firstSlots, layer, element, kind);
+        if (offsets[slot] >= 0) {
+            throw new IllegalArgumentException("Matrix is already written");
+        }
+        offsets[slot] = position;
+
+        double[] data = pairComparisons.getMatrix().getData();
+        for (int i = 0; i < n; i++) {
+            buffer.clear();
+            for (int j = 0; j < n; j++) {
+                buffer.putDouble(data[i * n + j]);
+            }
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+        }
+    }
+
+    /**
+     * Writes header and index and closes file, no matrices can be written after commit
+     */
+    public void commit() throws IOException {
+        if (committed) {
+            throw new IllegalStateException("Store is already committed");
+        }
+        final int headerSize = (int) JudgmentStore.dataOffset(layerSizes.length, offsets.length);
+        ByteBuffer header = ByteBuffer.allocate(headerSize).order(JudgmentStore.BYTE_ORDER);
+        header.putInt(JudgmentStore.MAGIC);
+        header.putInt(JudgmentStore.VERSION);
+        header.putInt(layerSizes.length);
+        for (int size : layerSizes) {
+            header.putInt(size);
+        }
+        for (long offset : offsets) {
+            header.putLong(offset);
+        }
+        header.flip();
+        long headerPosition = 0;
+        while (header.hasRemaining()) {
+            headerPosition += channel.write(header, headerPosition);
+        }
+        channel.close();
+        committed = true;
+    }
+
+    /**
+     * Closes file, file of store which was not committed is deleted
+     */
+    @Override
+    public void close() throws IOException {
+        if (committed) {
+            return;
+        }
+        try {
+            channel.close();
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package storage;
+
+import org.ejml.simple.SimpleMatrix;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming writer of computation results: local weights, consistency indices, global weights and rankings.
+ * Each result is written as a record with kind, names of algorithms, position in hierarchy and values,
+ * records are written through buffer as soon as they are passed, so that memory usage is constant.
+ */
+public abstract class ResultsWriter implements Closeable {
+    public enum Format {
+        /**
+         * One value per line: kind,local,global,ranging,layer,element,index,value
+         */
+        CSV,
+        /**
+         * One JSON object per record with array of values
+         */
+        JSON_LINES,
+        /**
+         * DataOutputStream records, see BinaryResultsWriter
+         */
+        BINARY
+    }
+
+    private static final String[] FUZZY_LOCAL_KINDS = {"local_L", "local_M", "local_U"};
+    private static final String[] FUZZY_GLOBAL_KINDS = {"global_L", "global_U"};
+
+    /**
+     * Creates writer of given format, existing file is overwritten
+     */
+    public static ResultsWriter open(Path file, Format format) throws IOException {
+        switch (format) {
+            case CSV: return new CsvResultsWriter(file);
+            case JSON_LINES: return new JsonLinesResultsWriter(file);
+            case BINARY: return new BinaryResultsWriter(file);
+            default: throw new IllegalArgumentException("Unknown format " + format);
+        }
+    }
+
+    /**
+     * Writes local weights and consistency index of node
+     * @param layer layer of compared elements
+     * @param element element relatively to which elements are compared
+     */
+    public void writeLocalWeights(String localAlg, int layer, int element, SimpleMatrix weights,
+                                  double consistencyIndex) throws IOException {
+        writeVector("local", localAlg, null, null, layer, element, weights);
+        beginRecord("ci", localAlg, null, null, layer, element, 1);
+        writeValue(consistencyIndex);
+        endRecord();
+    }
+
+    /**
+     * Writes global weights of layer
+     */
+    public void writeGlobalWeights(String localAlg, String globalAlg, int layer, SimpleMatrix weights)
+            throws IOException {
+        writeVector("global", localAlg, globalAlg, null, layer, -1, weights);
+    }
+
+    /**
+     * Writes fuzzy local weights {wL, wM, wU} of node
+     */
+    public void writeFuzzyLocalWeights(String localAlg, int layer, int element, ArrayList<SimpleMatrix> weights)
+            throws IOException {
+        for (int k = 0; k < 3; k++) {
+            writeVector(FUZZY_LOCAL_KINDS[k], localAlg, null, null, layer, element, weights.get(k));
+        }
+    }
+
+    /**
+     * Writes fuzzy global weights {wL, wU} of layer
+     */
+    public void writeFuzzyGlobalWeights(String localAlg, String globalAlg, int layer, ArrayList<SimpleMatrix> weights)
+            throws IOException {
+        for (int k = 0; k < 2; k++) {
+            writeVector(FUZZY_GLOBAL_KINDS[k], localAlg, globalAlg, null, layer, -1, weights.get(k));
+        }
+    }
+
+    /**
+     * Writes indices of layer elements from the best to the worst
+     * @param rangingAlg name of ranking method, may be null
+     */
+    public void writeRanking(String localAlg, String globalAlg, String rangingAlg, int layer, List<Integer> ranking)
+            throws IOException {
+        beginRecord("ranking", localAlg, globalAlg, rangingAlg, layer, -1, ranking.size());
+        for (int index : ranking) {
+            writeIndex(index);
+        }
+        endRecord();
+    }
+
+    /**
+     * Writes indices of layer elements from the best to the worst
+     * @param rangingAlg name of ranking method, may be null
+     */
+    public void writeRanking(String localAlg, String globalAlg, String rangingAlg, int layer, int[] ranking)
+            throws IOException {
+        beginRecord("ranking", localAlg, globalAlg, rangingAlg, layer, -1, ranking.length);
+        for (int index : ranking) {
+            writeIndex(index);
+        }
+        endRecord();
+    }
+
+    private void writeVector(String kind, String localAlg, String globalAlg, String rangingAlg, int layer, int element,
+                             SimpleMatrix vector) throws IOException {
+        final int length = vector.getNumElements();
+        beginRecord(kind, localAlg, globalAlg, rangingAlg, layer, element, length);
+        for (int i = 0; i < length; i++) {
+            writeValue(vector.get(i));
+        }
+        endRecord();
+    }
+
+    /**
+     * Starts record, names of algorithms are null if they are not applicable,
+     * element is -1 for records of the whole layer
+     */
+    protected abstract void beginRecord(String kind, String localAlg, String globalAlg, String rangingAlg,
+                                        int layer, int element, int length) throws IOException;
+
+    protected abstract void writeValue(double value) throws IOException;
+
+    protected abstract void writeIndex(int index) throws IOException;
+
+    protected abstract void endRecord() throws IOException;
+}